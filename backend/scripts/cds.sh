@@ -0,0 +1,33 @@
+#!/usr/bin/env bash
+# Unpacks the AOT-processed jar into target/cds and records an AppCDS archive of the classes loaded while starting it.
+# Run by `mvn -Paot package`; start the result with scripts/start.sh.
+set -euo pipefail
+
+jar="$(realpath "$1")"
+java="${JAVA:-java}"
+dir="$(dirname "$jar")/cds"
+
+rm -rf "$dir"
+mkdir -p "$dir"
+(cd "$dir" && unzip -q "$jar")
+
+# CDS only archives classes loaded from jars: package the application classes as one
+"$(dirname "$(command -v "$java")")/jar" --create --file "$dir/application.jar" -C "$dir/BOOT-INF/classes" .
+
+# Same explicit classpath for the training run and every start: the archive is only used when they match
+{
+  printf 'application.jar'
+  sed -n 's/^- "\(.*\)"$/:\1/p' "$dir/BOOT-INF/classpath.idx" | tr -d '\n'
+} > "$dir/classpath.txt"
+
+# Training run: refresh the context (no Mongo or Redis needed) and exit, dumping the loaded classes
+cd "$dir"
+"$java" -XX:ArchiveClassesAtExit=application.jsa \
+  -Dspring.aot.enabled=true \
+  -Dspring.context.exit=onRefresh \
+  -cp "$(cat classpath.txt)" com.projectpb.ProjectPbApplication \
+  --spring.docker.compose.enabled=false \
+  --spring.main.banner-mode=off \
+  --logging.level.root=WARN
+
+echo "AppCDS archive: $dir/application.jsa"
@@ -0,0 +1,11 @@
+#!/usr/bin/env bash
+# Starts the application unpacked by scripts/cds.sh with its AOT-generated bean definitions and AppCDS archive.
+# Extra arguments are passed to the application, JVM options through JAVA_OPTS.
+set -euo pipefail
+
+dir="${CDS_DIR:-$(dirname "$0")/../target/cds}"
+cd "$dir"
+exec "${JAVA:-java}" ${JAVA_OPTS:-} \
+  -XX:SharedArchiveFile=application.jsa \
+  -Dspring.aot.enabled=true \
+  -cp "$(cat classpath.txt)" com.projectpb.ProjectPbApplication "$@"
@@ -0,0 +1,47 @@
+#!/usr/bin/env bash
+# Time to first request of each startup mode: plain jar, AOT, AOT + AppCDS and the native image when it was built.
+# Needs Mongo and Redis (docker compose up -d mongo redis) and a `mvn -Paot package` build; RUNS=n sets the runs per mode.
+# Extra arguments are passed to the application in every mode.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+java="${JAVA:-java}"
+runs="${RUNS:-5}"
+url="http://localhost:8080/api/test/all"
+jar="$(ls target/backend-*.jar | grep -v '\.original$' | head -1)"
+cds="target/cds"
+args=("$@")
+
+run() {
+  local mode="$1"
+  shift
+  local times=()
+  for _ in $(seq "$runs"); do
+    local start
+    start=$(date +%s%N)
+    "$@" "${args[@]}" --spring.main.banner-mode=off --logging.level.root=WARN > /dev/null 2>&1 &
+    local pid=$!
+    until curl -sf -o /dev/null "$url"; do
+      if ! kill -0 "$pid" 2> /dev/null; then
+        echo "$mode: the application exited before serving a request" >&2
+        return 1
+      fi
+      sleep 0.02
+    done
+    times+=($(( ($(date +%s%N) - start) / 1000000 )))
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+  done
+  local sorted
+  sorted=($(printf '%s\n' "${times[@]}" | sort -n))
+  printf '%-8s median %6d ms   min %6d ms   max %6d ms\n' "$mode" \
+    "${sorted[$(( runs / 2 ))]}" "${sorted[0]}" "${sorted[$(( runs - 1 ))]}"
+}
+
+run jar "$java" -jar "$jar"
+(cd "$cds" && run aot "$java" -Dspring.aot.enabled=true -cp "$(cat classpath.txt)" com.projectpb.ProjectPbApplication)
+(cd "$cds" && run aot+cds "$java" -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true \
+  -cp "$(cat classpath.txt)" com.projectpb.ProjectPbApplication)
+if [ -x target/backend ]; then
+  run native target/backend
+fi
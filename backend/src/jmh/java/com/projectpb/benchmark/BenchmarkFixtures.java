@@ -0,0 +1,193 @@
+package com.projectpb.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projectpb.model.ExerciseLog;
+import com.projectpb.model.Game;
+import com.projectpb.model.GameComment;
+import com.projectpb.model.GameConfig;
+import com.projectpb.model.GameResult;
+import com.projectpb.model.RankedSession;
+import com.projectpb.model.TrainingSession;
+import com.projectpb.model.User;
+import com.projectpb.model.Vod;
+import com.projectpb.model.VodType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic test data shared by the benchmarks, so results are comparable between runs.
+ */
+public final class BenchmarkFixtures {
+
+    private static final long SEED = 42;
+
+    private BenchmarkFixtures() {
+    }
+
+    // Configured like the ObjectMapper Spring Boot builds for the application
+    public static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    public static User user() {
+        User user = new User();
+        user.setId("64f0c0ffee0000000000beef");
+        user.setUsername("benchmark");
+        user.setEmail("benchmark@projectpb.dev");
+        user.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z5JmY6Wb5fQHc2N1t0n8b9qK");
+        user.setRoles(Set.of("ROLE_USER", "ROLE_DEV"));
+        return user;
+    }
+
+    public static RankedSession rankedSession(int games) {
+        return rankedSession(games, new SplittableRandom(SEED));
+    }
+
+    private static RankedSession rankedSession(int games, SplittableRandom random) {
+        RankedSession session = new RankedSession();
+        session.setId("session-1");
+        session.setUserId("user-1");
+        session.setGameId("valorant");
+        session.setStartTime(1_700_000_000_000L);
+        session.setStartLp(1200);
+        session.setCurrentLp(1350);
+        session.setTargetLp(1500);
+        session.setStatus("ACTIVE");
+        session.setMode("SOLO");
+        session.setNotes("Focus on crosshair placement and trading, no tilt queue after two losses");
+        session.setDate("2024-03-01");
+
+        List<Game> list = new ArrayList<>(games);
+        for (int i = 0; i < games; i++) {
+            Game game = new Game();
+            game.setId("game-" + i);
+            game.setTimestamp(1_700_000_000_000L + i * 2_400_000L);
+            game.setChampion("Agent" + random.nextInt(25));
+            game.setResult(random.nextBoolean() ? GameResult.WIN : GameResult.LOSS);
+            game.setKills(random.nextInt(30));
+            game.setDeaths(random.nextInt(25));
+            game.setAssists(random.nextInt(15));
+            game.setLpChange(game.getResult() == GameResult.WIN ? 15 + random.nextInt(10) : -(12 + random.nextInt(10)));
+            game.setNotes("Round " + random.nextInt(24) + ": lost the retake on B site, should have waited for the flash");
+            GameComment comment = new GameComment();
+            comment.setId("comment-" + i);
+            comment.setText("Review this one");
+            comment.setCreatedAt(game.getTimestamp());
+            game.setComments(List.of(comment));
+            list.add(game);
+        }
+        session.setGames(list);
+        return session;
+    }
+
+    /**
+     * A ranked history: {@code sessions} sessions of {@code gamesPerSession} games.
+     */
+    public static List<RankedSession> rankedSessions(int sessions, int gamesPerSession) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<RankedSession> list = new ArrayList<>(sessions);
+        for (int i = 0; i < sessions; i++) {
+            RankedSession session = rankedSession(gamesPerSession, random);
+            session.setId("session-" + i);
+            list.add(session);
+        }
+        return list;
+    }
+
+    public static List<TrainingSession> trainingSessions(int count) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<TrainingSession> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            TrainingSession session = new TrainingSession();
+            session.setId("training-" + i);
+            session.setUserId("user-1");
+            session.setGameId("valorant");
+            session.setWorkoutId("workout-" + random.nextInt(10));
+            session.setTitle("Aim routine " + i);
+            session.setType("AIM");
+            session.setDifficulty("MEDIUM");
+            session.setTags(List.of("aim", "warmup"));
+            session.setCreatedAt("2024-03-01T18:00:00Z");
+            session.setDate("2024-03-01");
+            session.setDuration("45m");
+            session.setStatus("COMPLETED");
+            List<ExerciseLog> logs = new ArrayList<>();
+            for (int j = 0; j < 6; j++) {
+                ExerciseLog log = new ExerciseLog();
+                log.setExerciseId("exercise-" + j);
+                log.setCompleted(true);
+                log.setActualDuration("5m");
+                log.setScore(random.nextDouble() * 100);
+                log.setMetrics(Map.of("Score", Integer.toString(random.nextInt(100_000)), "Accuracy", random.nextInt(100) + "%"));
+                log.setTimestamp("2024-03-01T18:" + (10 + j * 5) + ":00Z");
+                logs.add(log);
+            }
+            session.setLogs(logs);
+            list.add(session);
+        }
+        return list;
+    }
+
+    public static List<Vod> vods(int count) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<Vod> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Vod vod = new Vod();
+            vod.setId("vod-" + i);
+            vod.setUserId("user-1");
+            vod.setTitle("Ranked review " + i);
+            vod.setGameId("valorant");
+            vod.setType(VodType.YOUTUBE);
+            vod.setUrl("https://www.youtube.com/watch?v=" + Long.toHexString(random.nextLong()));
+            vod.setThumbnailUrl("https://i.ytimg.com/vi/" + Long.toHexString(random.nextLong()) + "/hqdefault.jpg");
+            vod.setDate("2024-03-01");
+            vod.setDuration("32:10");
+            vod.setTags(List.of("review", "retake", "positioning"));
+            vod.setNotes("Watch the B retakes from 12:40, too slow on util");
+            vod.setCommentCount(random.nextInt(20));
+            list.add(vod);
+        }
+        return list;
+    }
+
+    /**
+     * A game config whose maps and agents carry inline data-URL icons, as uploaded from the admin pages,
+     * or plain CDN URLs when {@code iconBytes} is 0.
+     */
+    public static GameConfig gameConfig(int maps, int agents, int iconBytes) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        GameConfig config = new GameConfig();
+        config.setId("valorant");
+        config.setGame("VALORANT");
+        config.setDisplayName("Valorant");
+        config.setHidden(false);
+        List<GameConfig.ConfigMap> mapList = new ArrayList<>(maps);
+        for (int i = 0; i < maps; i++) {
+            mapList.add(new GameConfig.ConfigMap(null, "Map " + i, iconUrl(iconBytes, random)));
+        }
+        List<GameConfig.ConfigAgent> agentList = new ArrayList<>(agents);
+        for (int i = 0; i < agents; i++) {
+            agentList.add(new GameConfig.ConfigAgent(null, "Agent " + i, iconUrl(iconBytes, random)));
+        }
+        config.setMaps(mapList);
+        config.setAgents(agentList);
+        config.setMetrics(List.of(new GameConfig.ConfigMetric(null, "ACS", null, "NUMBER"),
+                new GameConfig.ConfigMetric(null, "HS%", "%", "PERCENT")));
+        return config;
+    }
+
+    private static String iconUrl(int iconBytes, SplittableRandom random) {
+        if (iconBytes == 0) {
+            return "https://cdn.projectpb.dev/icons/" + Long.toHexString(random.nextLong()) + ".png";
+        }
+        byte[] icon = new byte[iconBytes];
+        random.nextBytes(icon);
+        return "data:image/png;base64," + Base64.getEncoder().encodeToString(icon);
+    }
+}
@@ -0,0 +1,67 @@
+package com.projectpb.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projectpb.service.ResponseEncoding;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoding matrix of the cached list responses: server CPU per response (score) and bytes on the wire
+ * ({@code wireBytes} secondary result) for each payload, encoding and with or without the gzip the server applies.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EncodingBenchmark {
+
+    @Param({"rankedSessions", "trainingSessions", "vods"})
+    public String payload;
+
+    @Param({"JSON", "SMILE", "CBOR"})
+    public ResponseEncoding encoding;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    private ObjectMapper mapper;
+    private Object body;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Wire {
+        public long wireBytes;
+    }
+
+    @Setup
+    public void setUp() {
+        mapper = encoding.mapper(BenchmarkFixtures.objectMapper());
+        // A year of activity of a regular player
+        body = switch (payload) {
+            case "rankedSessions" -> BenchmarkFixtures.rankedSessions(100, 8);
+            case "trainingSessions" -> BenchmarkFixtures.trainingSessions(200);
+            case "vods" -> BenchmarkFixtures.vods(300);
+            default -> throw new IllegalArgumentException(payload);
+        };
+    }
+
+    @Benchmark
+    public byte[] encode(Wire wire) throws IOException {
+        byte[] encoded = mapper.writeValueAsBytes(body);
+        if (gzip) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(encoded.length / 4);
+            try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+                out.write(encoded);
+            }
+            encoded = compressed.toByteArray();
+        }
+        wire.wireBytes = encoded.length;
+        return encoded;
+    }
+}
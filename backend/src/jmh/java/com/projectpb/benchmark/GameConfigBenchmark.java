@@ -0,0 +1,106 @@
+package com.projectpb.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projectpb.model.GameConfig;
+import lombok.Data;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading the game config catalogue (what GET /game-configs and /bootstrap load on every dashboard visit)
+ * with the typed maps, agents and metrics, against the former {@code List<Map<String, Object>>} shape.
+ * Compare allocations with the GC profiler: {@code -Djmh.args="GameConfigBenchmark -prof gc"} ({@code gc.alloc.rate.norm}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GameConfigBenchmark {
+
+    @Param({"10"})
+    public int games;
+
+    private ObjectMapper objectMapper;
+    private MappingMongoConverter converter;
+    private byte[] catalogueJson;
+    private List<Document> catalogueDocuments;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = BenchmarkFixtures.objectMapper();
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.afterPropertiesSet();
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.afterPropertiesSet();
+
+        List<GameConfig> catalogue = new ArrayList<>(games);
+        catalogueDocuments = new ArrayList<>(games);
+        for (int i = 0; i < games; i++) {
+            GameConfig config = BenchmarkFixtures.gameConfig(20, 30, 0);
+            config.setId("game-" + i);
+            catalogue.add(config);
+            Document document = new Document();
+            converter.write(config, document);
+            catalogueDocuments.add(document);
+        }
+        catalogueJson = objectMapper.writeValueAsBytes(catalogue);
+    }
+
+    @Benchmark
+    public GameConfig[] jsonTyped() throws IOException {
+        return objectMapper.readValue(catalogueJson, GameConfig[].class);
+    }
+
+    @Benchmark
+    public LegacyGameConfig[] jsonLegacy() throws IOException {
+        return objectMapper.readValue(catalogueJson, LegacyGameConfig[].class);
+    }
+
+    @Benchmark
+    public List<GameConfig> mongoTyped() {
+        List<GameConfig> configs = new ArrayList<>(catalogueDocuments.size());
+        for (Document document : catalogueDocuments) {
+            configs.add(converter.read(GameConfig.class, document));
+        }
+        return configs;
+    }
+
+    @Benchmark
+    public List<LegacyGameConfig> mongoLegacy() {
+        List<LegacyGameConfig> configs = new ArrayList<>(catalogueDocuments.size());
+        for (Document document : catalogueDocuments) {
+            configs.add(converter.read(LegacyGameConfig.class, document));
+        }
+        return configs;
+    }
+
+    // GameConfig as it was before the typed entries
+    @Data
+    public static class LegacyGameConfig {
+        private String id;
+        private String userId;
+        private String game;
+        private String displayName;
+        private GameConfig.ConfigColors colors;
+        private GameConfig.ConfigTerminology terminology;
+        private List<GameConfig.ConfigRank> ranks;
+        private GameConfig.ConfigAssets assets;
+        private boolean hidden = true;
+        private GameConfig.ConfigFeatures features;
+
+        private List<Map<String, Object>> maps;
+        private List<Map<String, Object>> agents;
+        private List<Map<String, Object>> metrics;
+    }
+}
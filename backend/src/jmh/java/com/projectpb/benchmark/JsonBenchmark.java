@@ -0,0 +1,60 @@
+package com.projectpb.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projectpb.model.GameConfig;
+import com.projectpb.model.RankedSession;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// The largest documents the REST API reads and writes whole
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonBenchmark {
+
+    @Param({"500"})
+    public int games;
+
+    @Param({"8192"})
+    public int iconBytes;
+
+    private ObjectMapper objectMapper;
+    private RankedSession rankedSession;
+    private byte[] rankedSessionJson;
+    private GameConfig gameConfig;
+    private byte[] gameConfigJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = BenchmarkFixtures.objectMapper();
+        rankedSession = BenchmarkFixtures.rankedSession(games);
+        rankedSessionJson = objectMapper.writeValueAsBytes(rankedSession);
+        gameConfig = BenchmarkFixtures.gameConfig(20, 30, iconBytes);
+        gameConfigJson = objectMapper.writeValueAsBytes(gameConfig);
+    }
+
+    @Benchmark
+    public byte[] serializeRankedSession() throws IOException {
+        return objectMapper.writeValueAsBytes(rankedSession);
+    }
+
+    @Benchmark
+    public RankedSession deserializeRankedSession() throws IOException {
+        return objectMapper.readValue(rankedSessionJson, RankedSession.class);
+    }
+
+    @Benchmark
+    public byte[] serializeGameConfig() throws IOException {
+        return objectMapper.writeValueAsBytes(gameConfig);
+    }
+
+    @Benchmark
+    public GameConfig deserializeGameConfig() throws IOException {
+        return objectMapper.readValue(gameConfigJson, GameConfig.class);
+    }
+}
@@ -0,0 +1,85 @@
+package com.projectpb.benchmark;
+
+import com.projectpb.websocket.RealtimeCodec;
+import com.projectpb.websocket.RealtimeEnvelope;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Every realtime event is encoded once by its origin and decoded once by every other instance.
+ * Compares the envelope with the former {@code TYPE|toString()} message: time per event (score)
+ * and bytes per event ({@code wireBytes} secondary result).
+ * The former format had no decoder; the legacy decode is the parsing a consumer would have needed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RealtimeCodecBenchmark {
+
+    // Lombok's toString of the former StompController.TagEvent
+    private static final Pattern LEGACY_EVENT =
+            Pattern.compile("(\\w+)\\|StompController\\.TagEvent\\(type=(.*), timestamp=(\\d+|null), userId=(.*)\\)");
+
+    @Param({"ENVELOPE", "LEGACY"})
+    public String format;
+
+    private RealtimeCodec codec;
+    private RealtimeEnvelope envelope;
+    private LegacyTagEvent legacyEvent;
+    private String encoded;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Wire {
+        public long wireBytes;
+    }
+
+    @Setup
+    public void setUp() {
+        codec = new RealtimeCodec(BenchmarkFixtures.objectMapper());
+        envelope = new RealtimeEnvelope(RealtimeEnvelope.CURRENT_VERSION, "TAG", "game-1", "user-1",
+                1_700_000_000_000L, 123_456L, "node-a", "KILL");
+        legacyEvent = new LegacyTagEvent("KILL", 1_700_000_000_000L, "user-1");
+        encoded = format.equals("LEGACY") ? legacyEncode(legacyEvent) : codec.encode(envelope);
+    }
+
+    @Benchmark
+    public String encode(Wire wire) {
+        String message = format.equals("LEGACY") ? legacyEncode(legacyEvent) : codec.encode(envelope);
+        wire.wireBytes = message.getBytes(StandardCharsets.UTF_8).length;
+        return message;
+    }
+
+    @Benchmark
+    public Object decode(Wire wire) {
+        wire.wireBytes = encoded.getBytes(StandardCharsets.UTF_8).length;
+        return format.equals("LEGACY") ? legacyDecode(encoded) : codec.decode(encoded);
+    }
+
+    private static String legacyEncode(LegacyTagEvent event) {
+        return "TAG" + "|" + event;
+    }
+
+    private static LegacyTagEvent legacyDecode(String message) {
+        Matcher matcher = LEGACY_EVENT.matcher(message);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Malformed realtime event");
+        }
+        String timestamp = matcher.group(3);
+        return new LegacyTagEvent(matcher.group(2), timestamp.equals("null") ? null : Long.valueOf(timestamp), matcher.group(4));
+    }
+
+    private record LegacyTagEvent(String type, Long timestamp, String userId) {
+        @Override
+        public String toString() {
+            return "StompController.TagEvent(type=" + type + ", timestamp=" + timestamp + ", userId=" + userId + ")";
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.projectpb.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projectpb.service.RealtimeService;
+import com.projectpb.service.TagRateAggregator;
+import com.projectpb.websocket.RealtimeCodec;
+import com.projectpb.websocket.TopicBroadcaster;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tag recording under contention (several STOMP threads tagging the same game) and the periodic snapshot.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TagRateAggregatorBenchmark {
+
+    private static final String[] TYPES = {"KILL", "DEATH", "ASSIST", "OBJECTIVE"};
+
+    private TagRateAggregator aggregator;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = BenchmarkFixtures.objectMapper();
+        RealtimeCodec codec = new RealtimeCodec(objectMapper);
+        // The publisher thread is not started: snapshots queued for Redis are dropped once the queue is full
+        RealtimeService realtimeService = new RealtimeService(new StringRedisTemplate(), codec, new SimpleMeterRegistry(),
+                "benchmark", 1024, 256, 5, 60_000);
+        TopicBroadcaster broadcaster = new TopicBroadcaster(new SimpMessagingTemplate((message, timeout) -> true), null, 0);
+        aggregator = new TagRateAggregator(realtimeService, codec, broadcaster, objectMapper, 1000, 1000, 16, 2000);
+        for (int game = 0; game < 50; game++) {
+            for (String type : TYPES) {
+                aggregator.record("game-" + game, type);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void record(Cursor cursor) {
+        aggregator.record("game-1", TYPES[cursor.next++ & 3]);
+    }
+
+    // 50 active games
+    @Benchmark
+    public void publish() {
+        aggregator.publish();
+    }
+}
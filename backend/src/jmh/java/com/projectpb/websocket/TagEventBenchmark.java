@@ -0,0 +1,74 @@
+package com.projectpb.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.projectpb.benchmark.BenchmarkFixtures;
+import com.projectpb.security.services.UserDetailsImpl;
+import com.projectpb.service.RealtimeService;
+import com.projectpb.service.TagEventWriter;
+import com.projectpb.service.TagRateAggregator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one live tag on the STOMP inbound thread: envelope, write-behind append, rate counter,
+ * Redis publish queue and local broadcast (converted to JSON, then discarded).
+ * Redis and Mongo are unreachable: the publisher drains its queue through the open circuit breaker, and once
+ * the tag buffer is full appends take the drop path, as they would while Mongo is down.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TagEventBenchmark {
+
+    private MongoClient mongoClient;
+    private RealtimeService realtimeService;
+    private StompController controller;
+    private StompController.TagEvent event;
+    private Principal principal;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = BenchmarkFixtures.objectMapper();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RealtimeCodec codec = new RealtimeCodec(objectMapper);
+
+        realtimeService = new RealtimeService(new StringRedisTemplate(), codec, meterRegistry, "benchmark", 10000, 256, 5, 60_000);
+        ReflectionTestUtils.invokeMethod(realtimeService, "start");
+
+        mongoClient = MongoClients.create("mongodb://localhost:1/?serverSelectionTimeoutMS=100");
+        TagEventWriter writer = new TagEventWriter(new MongoTemplate(mongoClient, "benchmark"), meterRegistry, 65536, 500, 200);
+
+        TopicBroadcaster broadcaster = new TopicBroadcaster(new SimpMessagingTemplate((message, timeout) -> true), null, 0);
+        TagRateAggregator aggregator = new TagRateAggregator(realtimeService, codec, broadcaster, objectMapper, 1000, 1000, 16, 2000);
+
+        controller = new StompController(realtimeService, broadcaster, writer, aggregator);
+        event = new StompController.TagEvent("KILL", null);
+        UserDetailsImpl user = new UserDetailsImpl("user-1", "player", "player@example.com", "", List.of());
+        principal = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+    }
+
+    @TearDown
+    public void tearDown() {
+        ReflectionTestUtils.invokeMethod(realtimeService, "stop");
+        mongoClient.close();
+    }
+
+    @Benchmark
+    public void handleTag() {
+        controller.handleTag("game-1", event, principal);
+    }
+}
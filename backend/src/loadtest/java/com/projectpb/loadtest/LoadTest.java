@@ -0,0 +1,190 @@
+package com.projectpb.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * End-to-end load test of a running backend: every scenario is driven by {@code concurrency} virtual threads
+ * for a warm-up then a measured window, and checked against the SLOs of loadtest.properties.
+ * Fails (exit status 1, or a failed Maven build) when an SLO is violated, so it can gate a change.
+ */
+public class LoadTest {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final LoadTestConfig config;
+    private final HttpClient http;
+    private final String baseUrl;
+    private final List<VirtualUser> users = new ArrayList<>();
+
+    record VirtualUser(String username, String id, String token, String rankedSessionId, String vodId) {
+    }
+
+    @FunctionalInterface
+    interface Request {
+        HttpResponse<byte[]> send(VirtualUser user, SplittableRandom random) throws IOException, InterruptedException;
+    }
+
+    LoadTest(LoadTestConfig config) {
+        this.config = config;
+        this.baseUrl = config.get("baseUrl");
+        this.http = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTest loadTest = new LoadTest(new LoadTestConfig());
+        List<ScenarioStats> results = loadTest.run();
+        if (!loadTest.report(results)) {
+            throw new IllegalStateException("Load test SLOs violated");
+        }
+    }
+
+    List<ScenarioStats> run() throws Exception {
+        setUpUsers();
+
+        List<ScenarioStats> results = new ArrayList<>();
+        results.add(runHttp("login", (user, random) -> post("/api/v1/auth/login", null,
+                Map.of("username", user.username(), "password", config.get("password")))));
+        results.add(runHttp("bootstrap", (user, random) -> get("/api/v1/bootstrap", user.token())));
+        results.add(runHttp("rankedGameEntry", (user, random) -> post("/api/v1/ranked-sessions/" + user.rankedSessionId() + "/games", user.token(),
+                Map.of("timestamp", System.currentTimeMillis(), "champion", "Jett", "result", random.nextBoolean() ? "WIN" : "LOSS",
+                        "kills", random.nextInt(30), "deaths", random.nextInt(25), "assists", random.nextInt(15), "lpChange", 18))));
+        results.add(runHttp("vodComment", (user, random) -> post("/api/v1/vods/" + user.vodId() + "/comments", user.token(),
+                Map.of("timestampSeconds", random.nextInt(3600), "text", "retake B site, wait for the flash"))));
+        results.add(runHttp("vodTimeline", (user, random) -> {
+            int from = random.nextInt(3600);
+            return get("/api/v1/vods/" + user.vodId() + "/comments?from=" + from + "&to=" + (from + 120), user.token());
+        }));
+        // Blocking list endpoints (served from the response cache once loaded) against the reactive streams of the same lists
+        results.add(runHttp("rankedList", (user, random) -> get("/api/v1/ranked-sessions", user.token(), "application/json")));
+        results.add(runHttp("rankedStream", (user, random) -> get("/api/v1/stream/ranked-sessions", user.token(), "application/x-ndjson")));
+        results.add(runHttp("trainingList", (user, random) -> get("/api/v1/training-sessions", user.token(), "application/json")));
+        results.add(runHttp("trainingStream", (user, random) -> get("/api/v1/stream/training-sessions", user.token(), "application/x-ndjson")));
+        results.add(new TagStorm(config, users).run());
+        return results;
+    }
+
+    private void setUpUsers() throws IOException, InterruptedException {
+        int count = config.getInt("users");
+        for (int i = 0; i < count; i++) {
+            String username = "seed-user-" + i;
+            HttpResponse<byte[]> login = post("/api/v1/auth/login", null, Map.of("username", username, "password", config.get("password")));
+            if (login.statusCode() != 200) {
+                throw new IllegalStateException("Cannot log in as " + username + " (HTTP " + login.statusCode() + "): seed the database first");
+            }
+            JsonNode body = objectMapper.readTree(login.body());
+            String token = body.get("token").asText();
+
+            // Each virtual user writes to its own session and vod
+            JsonNode session = objectMapper.readTree(post("/api/v1/ranked-sessions", token,
+                    Map.of("gameId", "valorant", "status", "ACTIVE", "mode", "SOLO", "startTime", System.currentTimeMillis())).body());
+            JsonNode vod = objectMapper.readTree(post("/api/v1/vods", token,
+                    Map.of("gameId", "valorant", "title", "Load test", "type", "YOUTUBE", "url", "https://www.youtube.com/watch?v=dQw4w9WgXcQ")).body());
+            users.add(new VirtualUser(username, body.get("id").asText(), token, session.get("id").asText(), vod.get("id").asText()));
+        }
+    }
+
+    private ScenarioStats runHttp(String name, Request request) throws InterruptedException {
+        ScenarioStats stats = new ScenarioStats(name);
+        int concurrency = config.getInt("concurrency");
+        long warmupNanos = TimeUnit.SECONDS.toNanos(config.getInt("warmupSeconds"));
+        long endAt = System.nanoTime() + warmupNanos + TimeUnit.SECONDS.toNanos(config.getInt("durationSeconds"));
+
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int worker = 0; worker < concurrency; worker++) {
+                VirtualUser user = users.get(worker % users.size());
+                SplittableRandom random = new SplittableRandom(worker);
+                workers.submit(() -> {
+                    while (System.nanoTime() < endAt) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<byte[]> response = request.send(user, random);
+                            if (response.statusCode() / 100 == 2) {
+                                stats.record(System.nanoTime() - start);
+                            } else {
+                                stats.error();
+                            }
+                        } catch (IOException e) {
+                            stats.error();
+                        } catch (InterruptedException e) {
+                            return null;
+                        }
+                    }
+                    return null;
+                });
+            }
+            Thread.sleep(TimeUnit.NANOSECONDS.toMillis(warmupNanos));
+            stats.start();
+            Thread.sleep(TimeUnit.SECONDS.toMillis(config.getInt("durationSeconds")));
+            stats.stop();
+        }
+        System.out.printf("%-16s done%n", name);
+        return stats;
+    }
+
+    private HttpResponse<byte[]> get(String path, String token) throws IOException, InterruptedException {
+        return http.send(request(path, token).GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    // The whole body is read, so a stream is timed until its last element
+    private HttpResponse<byte[]> get(String path, String token, String accept) throws IOException, InterruptedException {
+        return http.send(request(path, token).header("Accept", accept).GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private HttpResponse<byte[]> post(String path, String token, Object body) throws IOException, InterruptedException {
+        HttpRequest.BodyPublisher json = HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        return http.send(request(path, token).header("Content-Type", "application/json").POST(json).build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private boolean report(List<ScenarioStats> results) throws IOException {
+        System.out.printf("%n%-16s %10s %8s %10s %9s %9s %9s%n", "scenario", "count", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms");
+        List<String> violations = new ArrayList<>();
+        for (ScenarioStats stats : results) {
+            System.out.printf("%-16s %10d %7.2f%% %10.1f %9.2f %9.2f %9.2f%n", stats.name(), stats.count(), stats.errorRate() * 100,
+                    stats.throughput(), stats.percentileMs(50), stats.percentileMs(95), stats.percentileMs(99));
+            violations.addAll(stats.check(config));
+        }
+
+        Path output = Path.of("target", "loadtest-result.json");
+        Files.createDirectories(output.getParent());
+        Files.writeString(output, results.stream().map(ScenarioStats::toJson).collect(Collectors.joining(",\n  ", "[\n  ", "\n]\n")));
+        System.out.println("\nResults written to " + output.toAbsolutePath());
+
+        if (violations.isEmpty()) {
+            System.out.println("All SLOs met");
+            return true;
+        }
+        System.out.println("SLO violations:");
+        violations.forEach(violation -> System.out.println("  " + violation));
+        return false;
+    }
+}
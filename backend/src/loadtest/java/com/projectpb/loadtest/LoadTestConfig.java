@@ -0,0 +1,41 @@
+package com.projectpb.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * loadtest.properties, overridable with -Dloadtest.{key}=value.
+ */
+class LoadTestConfig {
+
+    private final Properties properties = new Properties();
+
+    LoadTestConfig() throws IOException {
+        try (InputStream in = LoadTestConfig.class.getResourceAsStream("/loadtest.properties")) {
+            if (in != null) {
+                properties.load(in);
+            }
+        }
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith("loadtest."))
+                .forEach(name -> properties.setProperty(name.substring("loadtest.".length()), System.getProperty(name)));
+    }
+
+    String get(String key) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing load test property " + key);
+        }
+        return value.trim();
+    }
+
+    int getInt(String key) {
+        return Integer.parseInt(get(key));
+    }
+
+    Double getOptionalDouble(String key) {
+        String value = properties.getProperty(key);
+        return value != null ? Double.valueOf(value.trim()) : null;
+    }
+}
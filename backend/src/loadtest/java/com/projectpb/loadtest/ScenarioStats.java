@@ -0,0 +1,99 @@
+package com.projectpb.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies (in microseconds) and errors of one scenario during its measured window.
+ */
+class ScenarioStats {
+
+    private final String name;
+    private final Histogram latencies = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3);
+    private final LongAdder errors = new LongAdder();
+    private volatile boolean recording;
+    private long startedAt;
+    private long stoppedAt;
+
+    ScenarioStats(String name) {
+        this.name = name;
+    }
+
+    String name() {
+        return name;
+    }
+
+    void start() {
+        startedAt = System.nanoTime();
+        recording = true;
+    }
+
+    void stop() {
+        recording = false;
+        stoppedAt = System.nanoTime();
+    }
+
+    void record(long latencyNanos) {
+        if (recording) {
+            latencies.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), latencies.getHighestTrackableValue()));
+        }
+    }
+
+    void error() {
+        if (recording) {
+            errors.increment();
+        }
+    }
+
+    double percentileMs(double percentile) {
+        return latencies.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    double throughput() {
+        return latencies.getTotalCount() / ((stoppedAt - startedAt) / 1e9);
+    }
+
+    long count() {
+        return latencies.getTotalCount();
+    }
+
+    double errorRate() {
+        long total = latencies.getTotalCount() + errors.sum();
+        return total == 0 ? 1 : errors.sum() / (double) total;
+    }
+
+    /**
+     * SLO violations of this scenario, empty when it passed.
+     */
+    List<String> check(LoadTestConfig config) {
+        List<String> violations = new ArrayList<>();
+        String prefix = "slo." + name + ".";
+        checkMax(violations, "p50", percentileMs(50), config.getOptionalDouble(prefix + "p50Ms"));
+        checkMax(violations, "p95", percentileMs(95), config.getOptionalDouble(prefix + "p95Ms"));
+        checkMax(violations, "p99", percentileMs(99), config.getOptionalDouble(prefix + "p99Ms"));
+        Double maxErrorRate = config.getOptionalDouble(prefix + "maxErrorRate");
+        checkMax(violations, "error rate", errorRate(), maxErrorRate != null ? maxErrorRate : 0.01);
+        Double minThroughput = config.getOptionalDouble(prefix + "minThroughput");
+        if (minThroughput != null && throughput() < minThroughput) {
+            violations.add(String.format("%s throughput %.1f/s < %.1f/s", name, throughput(), minThroughput));
+        }
+        return violations;
+    }
+
+    private void checkMax(List<String> violations, String what, double actual, Double max) {
+        if (max != null && actual > max) {
+            violations.add(String.format("%s %s %.2f > %.2f", name, what, actual, max));
+        }
+    }
+
+    String toJson() {
+        return String.format(java.util.Locale.ROOT,
+                "{\"scenario\":\"%s\",\"count\":%d,\"errors\":%d,\"throughput\":%.2f,\"p50Ms\":%.3f,\"p95Ms\":%.3f,\"p99Ms\":%.3f,\"maxMs\":%.3f}",
+                name, count(), errors.sum(), throughput(), percentileMs(50), percentileMs(95), percentileMs(99), latencies.getMaxValue() / 1000.0);
+    }
+}
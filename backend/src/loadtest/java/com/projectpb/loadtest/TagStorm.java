@@ -0,0 +1,109 @@
+package com.projectpb.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * STOMP tag storm: clients grouped by game all tag at a fixed rate, and every client measures how long each tag
+ * of its game took to come back as a broadcast (from the timestamp the sender put in the tag).
+ * Throughput is counted in deliveries, i.e. tags times clients of the game.
+ */
+class TagStorm {
+
+    private final LoadTestConfig config;
+    private final List<LoadTest.VirtualUser> users;
+
+    TagStorm(LoadTestConfig config, List<LoadTest.VirtualUser> users) {
+        this.config = config;
+        this.users = users;
+    }
+
+    ScenarioStats run() throws Exception {
+        ScenarioStats stats = new ScenarioStats("tagStorm");
+        int clients = config.getInt("tagStorm.clients");
+        int clientsPerGame = config.getInt("tagStorm.clientsPerGame");
+        long periodMicros = TimeUnit.SECONDS.toMicros(1) / config.getInt("tagStorm.tagsPerSecondPerClient");
+
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(4);
+        scheduler.setThreadNamePrefix("tag-storm-");
+        scheduler.initialize();
+
+        WebSocketStompClient stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+        stompClient.setTaskScheduler(scheduler);
+
+        List<StompSession> sessions = new ArrayList<>();
+        try {
+            for (int i = 0; i < clients; i++) {
+                LoadTest.VirtualUser user = users.get(i % users.size());
+                String gameId = "loadtest-" + (i / clientsPerGame);
+                StompHeaders connectHeaders = new StompHeaders();
+                connectHeaders.add("Authorization", "Bearer " + user.token());
+                StompSession session = stompClient.connectAsync(config.get("wsUrl"), new WebSocketHttpHeaders(), connectHeaders,
+                        new StompSessionHandlerAdapter() {
+                        }).get(10, TimeUnit.SECONDS);
+                session.subscribe("/topic/game/" + gameId, new DeliveryHandler(stats));
+                sessions.add(session);
+
+                scheduler.getScheduledExecutor().scheduleAtFixedRate(() -> {
+                    if (session.isConnected()) {
+                        session.send("/app/game/" + gameId + "/tag",
+                                Map.of("type", "KILL", "timestamp", System.currentTimeMillis(), "userId", user.id()));
+                    }
+                }, periodMicros * i / clients, periodMicros, TimeUnit.MICROSECONDS);
+            }
+
+            Thread.sleep(TimeUnit.SECONDS.toMillis(config.getInt("warmupSeconds")));
+            stats.start();
+            Thread.sleep(TimeUnit.SECONDS.toMillis(config.getInt("durationSeconds")));
+            stats.stop();
+        } finally {
+            scheduler.shutdown();
+            sessions.forEach(StompSession::disconnect);
+            stompClient.stop();
+        }
+        System.out.printf("%-16s done%n", "tagStorm");
+        return stats;
+    }
+
+    private record DeliveryHandler(ScenarioStats stats) implements StompFrameHandler {
+
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return JsonNode.class;
+        }
+
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+            JsonNode frame = (JsonNode) payload;
+            // With coalescing enabled the server sends batches: {"v": 1, "b": [...]}
+            if (frame.has("b")) {
+                frame.get("b").forEach(this::record);
+            } else {
+                record(frame);
+            }
+        }
+
+        private void record(JsonNode envelope) {
+            JsonNode timestamp = envelope.get("ts");
+            if (timestamp != null) {
+                stats.record(TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis() - timestamp.asLong()));
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.projectpb.config;
+
+import com.projectpb.model.GameConfig;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rewrites game configs saved when maps, agents and metrics were free-form maps into the typed shape:
+ * every entry gets an id, metrics named with {@code name} get a {@code label}, and unknown keys are dropped.
+ * Only documents with an entry lacking an id are touched, so running it again does nothing.
+ */
+@Configuration
+public class GameConfigMigration {
+    private static final Logger logger = LoggerFactory.getLogger(GameConfigMigration.class);
+
+    @Bean
+    public CommandLineRunner migrateGameConfigs(MongoTemplate mongoTemplate) {
+        return args -> {
+            Query legacy = new Query(new Criteria().orOperator(
+                    Criteria.where("maps").elemMatch(Criteria.where("id").exists(false)),
+                    Criteria.where("agents").elemMatch(Criteria.where("id").exists(false)),
+                    Criteria.where("metrics").elemMatch(Criteria.where("id").exists(false))));
+            legacy.fields().include("maps", "agents", "metrics");
+
+            String collection = mongoTemplate.getCollectionName(GameConfig.class);
+            int migrated = 0;
+            for (Document config : mongoTemplate.find(legacy, Document.class, collection)) {
+                Update update = new Update();
+                migrate(config, "maps", update, "name", "name", "iconUrl");
+                migrate(config, "agents", update, "name", "name", "iconUrl");
+                migrate(config, "metrics", update, "label", "label", "unit", "type");
+                mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(config.get("_id"))), update, collection);
+                migrated++;
+            }
+            if (migrated > 0) {
+                logger.info("Migrated {} game configs to typed maps, agents and metrics", migrated);
+            }
+        };
+    }
+
+    private static void migrate(Document config, String key, Update update, String nameField, String... fields) {
+        if (config.get(key) instanceof List<?> list) {
+            update.set(key, entries(list, nameField, fields));
+        }
+    }
+
+    // Keeps the typed fields of each entry, naming it from "name" when nameField is missing, and derives its id
+    private static List<Document> entries(List<?> list, String nameField, String... fields) {
+        List<Document> entries = new ArrayList<>();
+        for (Object item : list) {
+            if (!(item instanceof Map<?, ?> legacy)) {
+                continue;
+            }
+            Object name = legacy.get(nameField) != null ? legacy.get(nameField) : legacy.get("name");
+            Object id = legacy.get("id") != null ? legacy.get("id") : GameConfig.slug(name != null ? name.toString() : null);
+            Document entry = new Document("id", id);
+            for (String field : fields) {
+                Object fieldValue = field.equals(nameField) ? name : legacy.get(field);
+                if (fieldValue != null) {
+                    entry.put(field, fieldValue);
+                }
+            }
+            entries.add(entry);
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,53 @@
+package com.projectpb.config;
+
+import com.projectpb.model.RankedGameBucket;
+import com.projectpb.model.SessionMonthSummary;
+import com.projectpb.model.VodComment;
+import com.projectpb.service.HistoryArchiveService;
+import com.projectpb.service.SearchService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.List;
+
+/**
+ * Automatic index creation is off, so collections whose queries depend on an index declare it on the model
+ * and are listed here; their indexes are created (if missing) at startup, along with the archive collections
+ * and the text indexes of the search.
+ */
+@Configuration
+public class MongoIndexConfig {
+    private static final Logger logger = LoggerFactory.getLogger(MongoIndexConfig.class);
+
+    private static final List<Class<?>> INDEXED_DOCUMENTS = List.of(
+            VodComment.class,
+            RankedGameBucket.class,
+            SessionMonthSummary.class
+    );
+
+    @Bean
+    public CommandLineRunner ensureIndexes(MongoTemplate mongoTemplate, MongoMappingContext mappingContext, SearchService searchService,
+                                          HistoryArchiveService historyArchiveService) {
+        IndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+        return args -> {
+            for (Class<?> type : INDEXED_DOCUMENTS) {
+                IndexOperations indexOps = mongoTemplate.indexOps(type);
+                resolver.resolveIndexFor(type).forEach(indexOps::ensureIndex);
+                logger.info("Indexes ensured for {}", mongoTemplate.getCollectionName(type));
+            }
+            // The archive collections are compressed with zstd, so they are created explicitly before the search indexes
+            historyArchiveService.ensureCollections();
+            logger.info("Archive collections ensured");
+            searchService.ensureIndexes();
+            logger.info("Search indexes ensured");
+        };
+    }
+}
@@ -0,0 +1,38 @@
+package com.projectpb.config;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandSucceededEvent;
+import com.projectpb.service.RequestTiming;
+import com.projectpb.service.SlowQueryDetector;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class MongoMonitoringConfig {
+
+    // Applied to both the blocking and the reactive Mongo clients
+    @Bean
+    public MongoClientSettingsBuilderCustomizer slowQueryListener(SlowQueryDetector slowQueryDetector) {
+        return settings -> settings.addCommandListener(slowQueryDetector);
+    }
+
+    // Blocking commands complete on the thread of the request that sent them
+    @Bean
+    public MongoClientSettingsBuilderCustomizer requestTimingListener() {
+        return settings -> settings.addCommandListener(new CommandListener() {
+            @Override
+            public void commandSucceeded(CommandSucceededEvent event) {
+                RequestTiming.add(RequestTiming.Phase.DB, event.getElapsedTime(TimeUnit.NANOSECONDS));
+            }
+
+            @Override
+            public void commandFailed(CommandFailedEvent event) {
+                RequestTiming.add(RequestTiming.Phase.DB, event.getElapsedTime(TimeUnit.NANOSECONDS));
+            }
+        });
+    }
+}
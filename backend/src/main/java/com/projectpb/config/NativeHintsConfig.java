@@ -0,0 +1,80 @@
+package com.projectpb.config;
+
+import com.projectpb.websocket.RankedSessionDelta;
+import com.projectpb.websocket.RealtimeBatch;
+import com.projectpb.websocket.RealtimeEnvelope;
+import com.projectpb.websocket.TagRateSnapshot;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.util.ClassUtils;
+
+import java.util.List;
+
+/**
+ * Reflection and resource hints for the native image, used at build time by the AOT processing.
+ * Spring infers the entities of the repositories and the bodies of the controllers, but not what Jackson reaches
+ * through Object, maps and cached bodies, nor what JJWT loads by name.
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.ProjectPbRuntimeHints.class)
+public class NativeHintsConfig {
+
+    static class ProjectPbRuntimeHints implements RuntimeHintsRegistrar {
+
+        // JJWT 0.11 instantiates its implementation and its Jackson (de)serializer reflectively
+        private static final List<String> JJWT_TYPES = List.of(
+                "io.jsonwebtoken.impl.DefaultJwtBuilder",
+                "io.jsonwebtoken.impl.DefaultJwtParser",
+                "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+                "io.jsonwebtoken.impl.DefaultHeader",
+                "io.jsonwebtoken.impl.DefaultJwsHeader",
+                "io.jsonwebtoken.impl.DefaultClaims",
+                "io.jsonwebtoken.impl.compression.DeflateCompressionCodec",
+                "io.jsonwebtoken.impl.compression.GzipCompressionCodec",
+                "io.jsonwebtoken.jackson.io.JacksonSerializer",
+                "io.jsonwebtoken.jackson.io.JacksonDeserializer"
+        );
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // Lombok models and records: accessors, constructors and the types reachable from their properties
+            BindingReflectionHintsRegistrar binding = new BindingReflectionHintsRegistrar();
+            binding.registerReflectionHints(hints.reflection(), modelTypes(classLoader));
+            binding.registerReflectionHints(hints.reflection(),
+                    RealtimeEnvelope.class, RealtimeBatch.class, TagRateSnapshot.class, RankedSessionDelta.class);
+
+            for (String type : JJWT_TYPES) {
+                hints.reflection().registerType(TypeReference.of(type),
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+            hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+        }
+
+        // Every class of the model package, so new documents don't need to be listed here
+        private static Class<?>[] modelTypes(ClassLoader classLoader) {
+            ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false) {
+                @Override
+                protected boolean isCandidateComponent(AnnotatedBeanDefinition beanDefinition) {
+                    return beanDefinition.getMetadata().isIndependent();
+                }
+            };
+            scanner.addIncludeFilter((reader, factory) -> true);
+            if (classLoader != null) {
+                scanner.setResourceLoader(new DefaultResourceLoader(classLoader));
+            }
+            return scanner.findCandidateComponents("com.projectpb.model").stream()
+                    .map(BeanDefinition::getBeanClassName)
+                    .map(name -> ClassUtils.resolveClassName(name, classLoader))
+                    .toArray(Class<?>[]::new);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.projectpb.config;
+
+import com.projectpb.model.Game;
+import com.projectpb.model.RankedGameBucket;
+import com.projectpb.model.RankedSession;
+import com.projectpb.repository.RankedGameBucketRepository;
+import com.projectpb.service.RankedGameStore;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Moves the games embedded in ranked sessions to ranked_game_buckets, then removes them from the session.
+ * Buckets have deterministic ids, so a migration interrupted between the two steps writes the same buckets again
+ * on the next start; sessions without embedded games are not touched.
+ */
+@Configuration
+public class RankedGameMigration {
+    private static final Logger logger = LoggerFactory.getLogger(RankedGameMigration.class);
+
+    @Bean
+    public CommandLineRunner migrateRankedGames(MongoTemplate mongoTemplate, RankedGameStore gameStore, RankedGameBucketRepository bucketRepository) {
+        return args -> {
+            Query legacy = new Query(where("games").exists(true));
+            legacy.fields().include("userId", "games");
+
+            String collection = mongoTemplate.getCollectionName(RankedSession.class);
+            int migrated = 0;
+            long games = 0;
+            try (Stream<Document> sessions = mongoTemplate.stream(legacy, Document.class, collection)) {
+                for (Iterator<Document> cursor = sessions.iterator(); cursor.hasNext(); ) {
+                    Document session = cursor.next();
+                    String sessionId = session.get("_id").toString();
+                    List<Game> embedded = new ArrayList<>();
+                    if (session.get("games") instanceof List<?> list) {
+                        for (Object game : list) {
+                            if (game instanceof Document document) {
+                                embedded.add(mongoTemplate.getConverter().read(Game.class, document));
+                            }
+                        }
+                    }
+                    List<RankedGameBucket> buckets = gameStore.buckets(session.getString("userId"), sessionId, embedded);
+                    bucketRepository.saveAll(buckets);
+                    mongoTemplate.updateFirst(Query.query(where("_id").is(session.get("_id"))), new Update().unset("games"), collection);
+                    migrated++;
+                    games += embedded.size();
+                }
+            }
+            if (migrated > 0) {
+                logger.info("Moved {} games of {} ranked sessions to buckets", games, migrated);
+            }
+        };
+    }
+}
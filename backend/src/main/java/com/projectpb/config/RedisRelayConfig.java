@@ -0,0 +1,38 @@
+package com.projectpb.config;
+
+import com.projectpb.service.RealtimeService;
+import com.projectpb.service.ResponseCacheService;
+import com.projectpb.service.TagRateAggregator;
+import com.projectpb.websocket.GameEventRelay;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.PatternTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.util.List;
+
+@Configuration
+public class RedisRelayConfig {
+
+    // The container fails startup when Redis is unreachable: single-instance setups without Redis can turn it off
+    @Bean
+    @ConditionalOnProperty(name = "projectpb.realtime.relay.enabled", havingValue = "true", matchIfMissing = true)
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                       GameEventRelay gameEventRelay,
+                                                                       TagRateAggregator tagRateAggregator,
+                                                                       ResponseCacheService responseCacheService) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        // Listeners only enqueue or store, so dispatch on the subscription thread instead of spawning a thread per message
+        container.setTaskExecutor(new SyncTaskExecutor());
+        container.addMessageListener(gameEventRelay, List.of(
+                new PatternTopic(RealtimeService.GAME_CHANNEL_PREFIX + "*"),
+                new PatternTopic(RealtimeService.USER_CHANNEL_PREFIX + "*")));
+        container.addMessageListener(tagRateAggregator, new PatternTopic(RealtimeService.STATS_CHANNEL_PREFIX + "*"));
+        container.addMessageListener(responseCacheService, new PatternTopic(RealtimeService.CACHE_CHANNEL_PREFIX + "*"));
+        return container;
+    }
+}
@@ -0,0 +1,21 @@
+package com.projectpb.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    // Named "taskScheduler" so @Scheduled jobs don't end up on the STOMP broker's own scheduler
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(@Value("${projectpb.scheduling.poolSize:4}") int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("projectpb-scheduler-");
+        return scheduler;
+    }
+}
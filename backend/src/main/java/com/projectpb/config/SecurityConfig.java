@@ -3,7 +3,10 @@ package com.projectpb.config;
 import com.projectpb.security.jwt.AuthEntryPointJwt;
 import com.projectpb.security.jwt.AuthTokenFilter;
 import com.projectpb.security.services.UserDetailsServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -16,6 +19,8 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 
 @Configuration
 @EnableWebSecurity
@@ -28,6 +33,13 @@ public class SecurityConfig {
     @Autowired
     AuthEntryPointJwt unauthorizedHandler;
 
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    // Actuator's own port, only reachable from the internal network (-1: actuator shares the application port)
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+
     @Bean
     public AuthTokenFilter authenticationJwtTokenFilter() {
         return new AuthTokenFilter();
@@ -62,7 +74,7 @@ public class SecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(), meterRegistry);
     }
 
     @Bean
@@ -72,10 +84,18 @@ public class SecurityConfig {
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .cors(org.springframework.security.config.Customizer.withDefaults())
             .authorizeHttpRequests(auth -> auth
+                // Streams complete on an async dispatch, after the original request was already authorized
+                .dispatcherTypeMatchers(jakarta.servlet.DispatcherType.ASYNC).permitAll()
                 .requestMatchers(org.springframework.http.HttpMethod.OPTIONS, "/**").permitAll()
                 .requestMatchers("/api/v1/auth/**").permitAll()
                 .requestMatchers("/api/test/**").permitAll()
                 .requestMatchers("/error").permitAll()
+                .requestMatchers("/actuator/health/**", "/livez", "/readyz").permitAll()
+                // Prometheus scrapes without a user token, on the management port only
+                .requestMatchers(new AndRequestMatcher(onManagementPort(), EndpointRequest.to("prometheus"))).permitAll()
+                // WebSocket clients can't send headers on the handshake: the JWT is checked on STOMP CONNECT instead
+                .requestMatchers("/ws-projectpb/**", "/ws-projectpb-native").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             );
 
@@ -84,5 +104,9 @@ public class SecurityConfig {
 
         return http.build();
     }
+
+    private RequestMatcher onManagementPort() {
+        return request -> managementPort > 0 && request.getLocalPort() == managementPort;
+    }
 }
 
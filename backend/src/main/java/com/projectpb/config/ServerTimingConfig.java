@@ -0,0 +1,25 @@
+package com.projectpb.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ServerTimingConfig {
+
+    @Value("${projectpb.timing.sampleRate:0.05}")
+    private double sampleRate;
+
+    @Value("${projectpb.timing.spans:false}")
+    private boolean spans;
+
+    // Ahead of the Spring Security chain, so JWT authentication falls inside the timed request
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter() {
+        FilterRegistrationBean<ServerTimingFilter> registration = new FilterRegistrationBean<>(new ServerTimingFilter(sampleRate, spans));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+}
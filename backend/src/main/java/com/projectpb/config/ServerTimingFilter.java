@@ -0,0 +1,111 @@
+package com.projectpb.config;
+
+import com.projectpb.service.RequestTiming;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Times a sample of the HTTP requests phase by phase (see {@link RequestTiming}) and reports it in a
+ * {@code Server-Timing} response header, readable in the browser dev tools, and optionally as one span per request
+ * logged by {@code projectpb.spans}.
+ * The body of a sampled response is buffered so the header can include serialization; streaming and WebSocket
+ * endpoints are never sampled. Unsampled requests only cost one random draw here and a thread-local read per phase.
+ */
+class ServerTimingFilter extends OncePerRequestFilter {
+    private static final Logger spanLogger = LoggerFactory.getLogger("projectpb.spans");
+
+    private final double sampleRate;
+    private final boolean spans;
+
+    ServerTimingFilter(double sampleRate, boolean spans) {
+        this.sampleRate = sampleRate;
+        this.spans = spans;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return path.startsWith("/api/v1/stream/") || path.startsWith("/ws-projectpb");
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+        if (sampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long startedAt = System.currentTimeMillis();
+        RequestTiming timing = RequestTiming.begin();
+        ContentCachingResponseWrapper buffered = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, buffered);
+        } finally {
+            RequestTiming.end();
+            long total = timing.elapsedNanos();
+            if (!response.isCommitted()) {
+                response.setHeader("Server-Timing", timing.toServerTiming(total));
+                response.setHeader("Timing-Allow-Origin", "*"); // lets the dashboard read it cross-origin
+            }
+            buffered.copyBodyToResponse();
+            if (spans) {
+                logSpan(request, buffered.getStatus(), startedAt, total, timing);
+            }
+        }
+    }
+
+    // One OpenTelemetry-like span per request, continuing the caller's trace when it sent a W3C traceparent
+    private static void logSpan(HttpServletRequest request, int status, long startedAt, long totalNanos, RequestTiming timing) {
+        String traceId = null;
+        String parentSpanId = null;
+        String traceparent = request.getHeader("traceparent");
+        if (traceparent != null && traceparent.length() >= 55 && traceparent.charAt(2) == '-' && traceparent.charAt(35) == '-') {
+            traceId = traceparent.substring(3, 35);
+            parentSpanId = traceparent.substring(36, 52);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (traceId == null) {
+            traceId = hex(random.nextLong()) + hex(random.nextLong());
+        }
+        Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+
+        StringBuilder span = new StringBuilder(320);
+        span.append("{\"traceId\":\"").append(traceId)
+                .append("\",\"spanId\":\"").append(hex(random.nextLong()));
+        if (parentSpanId != null) {
+            span.append("\",\"parentSpanId\":\"").append(parentSpanId);
+        }
+        span.append("\",\"name\":\"").append(request.getMethod()).append(' ').append(route != null ? route : "unmatched")
+                .append("\",\"startTimeUnixMs\":").append(startedAt)
+                .append(",\"durationMs\":");
+        RequestTiming.appendMillis(span, totalNanos);
+        span.append(",\"attributes\":{\"http.status_code\":").append(status);
+        for (RequestTiming.Phase phase : RequestTiming.Phase.values()) {
+            long count = timing.count(phase);
+            if (count > 0) {
+                span.append(",\"").append(phase.metric()).append(".ms\":");
+                RequestTiming.appendMillis(span, timing.nanos(phase));
+                span.append(",\"").append(phase.metric()).append(".count\":").append(count);
+            }
+        }
+        span.append("}}");
+        spanLogger.info(span.toString());
+    }
+
+    private static String hex(long value) {
+        String hex = Long.toHexString(value);
+        return "0".repeat(16 - hex.length()) + hex;
+    }
+}
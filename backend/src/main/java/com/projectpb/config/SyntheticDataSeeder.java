@@ -0,0 +1,431 @@
+package com.projectpb.config;
+
+import com.projectpb.model.*;
+import com.projectpb.service.RankedGameStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Fills the database with synthetic users shaped like production data (run with the {@code seed} profile).
+ * Every user is generated from its own RNG derived from the seed and its index, so the same seed produces
+ * the same documents whatever the number of threads. Documents are written with unordered bulk inserts,
+ * one batch per collection and thread.
+ */
+@Component
+@Profile("seed")
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class SyntheticDataSeeder implements CommandLineRunner {
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataSeeder.class);
+
+    private static final String USERNAME_PREFIX = "seed-user-";
+    private static final long START_DATE = LocalDate.of(2023, 1, 1).atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+    private static final long DAY_MS = TimeUnit.DAYS.toMillis(1);
+
+    private static final String[] CHAMPIONS = {"Ahri", "Jett", "Sova", "Reyna", "Octane", "Tracer", "Ash", "Sage", "Lee Sin", "Jinx",
+            "Omen", "Killjoy", "Ana", "Genji", "Thorn", "Yasuo", "Dominus", "Breach", "Fenix", "Caitlyn"};
+    private static final String[] MAPS = {"Ascent", "Bind", "Haven", "Split", "Mirage", "Inferno", "Oregon", "Summoner's Rift", "Dust II", "Lotus"};
+    private static final String[] TAGS = {"aim", "tilt", "macro", "retake", "positioning", "comms", "clutch", "entry", "utility", "mental",
+            "crosshair", "rotation", "eco", "vision", "trade", "warmup", "review", "scrim", "ranked", "duel"};
+    private static final String[] NOTE_WORDS = {"lost", "won", "the", "retake", "on", "B", "site", "after", "bad", "rotation", "good",
+            "comms", "tilt", "queue", "should", "have", "waited", "for", "flash", "trade", "entry", "too", "early", "mid", "control",
+            "eco", "round", "clutch", "1v2", "focus", "crosshair", "placement", "timing", "utility", "wasted", "positioning"};
+    private static final String[] EXERCISES = {"Gridshot", "Tracking", "Flicks", "Deathmatch", "Spray control", "Aerials", "Last hits", "Peeks"};
+    private static final String[] DIFFICULTIES = {"Facile", "Moyen", "Difficile"};
+    private static final String[] CATEGORIES = {"Warmup", "Training"};
+
+    private final MongoTemplate mongoTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final RankedGameStore rankedGameStore;
+    private final int users;
+    private final long seed;
+    private final int threads;
+    private final int batchSize;
+
+    private final Map<Class<?>, AtomicLong> written = new LinkedHashMap<>();
+
+    public SyntheticDataSeeder(MongoTemplate mongoTemplate,
+                               PasswordEncoder passwordEncoder,
+                               RankedGameStore rankedGameStore,
+                               @Value("${projectpb.seed.users:1000}") int users,
+                               @Value("${projectpb.seed.seed:42}") long seed,
+                               @Value("${projectpb.seed.threads:0}") int threads,
+                               @Value("${projectpb.seed.batchSize:1000}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.rankedGameStore = rankedGameStore;
+        this.users = users;
+        this.seed = seed;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.batchSize = batchSize;
+        for (Class<?> type : List.of(User.class, RankedSession.class, RankedGameBucket.class, TrainingSession.class, Workout.class, Vod.class, VodComment.class, GameConfig.class)) {
+            written.put(type, new AtomicLong());
+        }
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        if (mongoTemplate.exists(query(where("username").is(USERNAME_PREFIX + 0)), User.class)) {
+            logger.warn("Synthetic data already present ({}0 exists), skipping seeding", USERNAME_PREFIX);
+            return;
+        }
+        logger.info("Seeding {} users with seed {} on {} threads", users, seed, threads);
+        long start = System.nanoTime();
+
+        seedGameConfigs();
+
+        // Every user is seeded with the same password ("password"): BCrypt once, not once per user
+        String password = passwordEncoder.encode("password");
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int worker = 0; worker < threads; worker++) {
+                int first = worker;
+                workers.add(executor.submit(() -> seedUsers(first, password)));
+            }
+            Thread progress = Thread.ofPlatform().daemon().name("seed-progress").start(() -> reportProgress(start));
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+            progress.interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+        report(start, "Seeding done");
+    }
+
+    private void seedGameConfigs() {
+        List<GameConfig> configs = new ArrayList<>();
+        for (SupportedGame game : SupportedGame.values()) {
+            String id = game.name().toLowerCase();
+            if (mongoTemplate.findById(id, GameConfig.class) == null) {
+                configs.add(gameConfig(id, game, new SplittableRandom(seed ^ game.ordinal())));
+            }
+        }
+        insert(GameConfig.class, configs);
+    }
+
+    // Users worker, worker + threads, worker + 2 * threads...
+    private void seedUsers(int worker, String password) {
+        Batches batches = new Batches();
+        for (int index = worker; index < users; index += threads) {
+            SplittableRandom random = new SplittableRandom(seed * 0x9E3779B97F4A7C15L + index);
+            generateUser(index, password, random, batches);
+        }
+        batches.flushAll();
+    }
+
+    private void generateUser(int index, String password, SplittableRandom random, Batches batches) {
+        User user = new User();
+        user.setId(id(random));
+        user.setUsername(USERNAME_PREFIX + index);
+        user.setEmail(USERNAME_PREFIX + index + "@projectpb.dev");
+        user.setPassword(password);
+        user.setRoles(Set.of("ROLE_USER"));
+        user.setCreatedDate(Instant.ofEpochMilli(START_DATE + random.nextLong(365) * DAY_MS));
+        batches.add(user);
+
+        // One or two main games per user
+        SupportedGame[] games = SupportedGame.values();
+        List<SupportedGame> played = new ArrayList<>(List.of(games[random.nextInt(games.length)]));
+        if (random.nextInt(3) == 0) {
+            played.add(games[random.nextInt(games.length)]);
+        }
+
+        // Activity is heavy-tailed (exponential): most users have a few dozen documents, a few have several hundred
+        int activity = (int) Math.min(20, Math.ceil(-Math.log(1 - random.nextDouble()) * 2));
+        List<Workout> workouts = new ArrayList<>();
+        for (int i = 0, n = 1 + random.nextInt(3 * activity + 1); i < n; i++) {
+            Workout workout = workout(user.getId(), pick(played, random), random);
+            workouts.add(workout);
+            batches.add(workout);
+        }
+        for (int i = 0, n = random.nextInt(20 * activity + 1); i < n; i++) {
+            RankedSession session = rankedSession(user.getId(), pick(played, random), random);
+            batches.add(session);
+            rankedGameStore.buckets(user.getId(), session.getId(), session.getGames()).forEach(batches::add);
+        }
+        for (int i = 0, n = random.nextInt(15 * activity + 1); i < n; i++) {
+            batches.add(trainingSession(user.getId(), workouts.get(random.nextInt(workouts.size())), random));
+        }
+        for (int i = 0, n = random.nextInt(4 * activity + 1); i < n; i++) {
+            Vod vod = vod(user.getId(), pick(played, random), random);
+            int comments = random.nextInt(25);
+            for (int c = 0; c < comments; c++) {
+                batches.add(vodComment(vod, random));
+            }
+            vod.setCommentCount(comments);
+            batches.add(vod);
+        }
+    }
+
+    private RankedSession rankedSession(String userId, SupportedGame game, SplittableRandom random) {
+        long start = START_DATE + random.nextLong(700) * DAY_MS + random.nextLong(DAY_MS);
+        int startLp = random.nextInt(3000);
+        List<Game> games = new ArrayList<>();
+        int lp = 0;
+        long timestamp = start;
+        for (int i = 0, n = 1 + random.nextInt(12); i < n; i++) {
+            Game entry = new Game();
+            entry.setId(id(random));
+            timestamp += (25 + random.nextInt(20)) * 60_000L;
+            entry.setTimestamp(timestamp);
+            entry.setChampion(CHAMPIONS[random.nextInt(CHAMPIONS.length)]);
+            entry.setAgentId(GameConfig.slug(entry.getChampion()));
+            entry.setMapId(GameConfig.slug(MAPS[random.nextInt(MAPS.length)]));
+            int roll = random.nextInt(100);
+            entry.setResult(roll < 50 ? GameResult.WIN : roll < 97 ? GameResult.LOSS : GameResult.REMAKE);
+            entry.setKills(random.nextInt(30));
+            entry.setDeaths(random.nextInt(25));
+            entry.setAssists(random.nextInt(15));
+            entry.setLpChange(entry.getResult() == GameResult.WIN ? 15 + random.nextInt(10)
+                    : entry.getResult() == GameResult.LOSS ? -(12 + random.nextInt(10)) : 0);
+            lp += entry.getLpChange();
+            if (random.nextInt(3) == 0) {
+                entry.setNotes(sentence(random, 6, 20));
+            }
+            if (random.nextInt(5) == 0) {
+                GameComment comment = new GameComment();
+                comment.setId(id(random));
+                comment.setText(sentence(random, 4, 12));
+                comment.setCreatedAt(timestamp);
+                entry.setComments(List.of(comment));
+            }
+            games.add(entry);
+        }
+
+        RankedSession session = new RankedSession();
+        session.setId(id(random));
+        session.setUserId(userId);
+        session.setGameId(game.name().toLowerCase());
+        session.setGame(game);
+        session.setStartTime(start);
+        session.setEndTime(timestamp);
+        session.setGames(games);
+        session.setStartLp(startLp);
+        session.setCurrentLp(startLp + lp);
+        session.setTargetLp(startLp + 100);
+        session.setStatus("COMPLETED");
+        session.setMode(random.nextInt(4) == 0 ? "FLEX" : "SOLO");
+        session.setResult(lp >= 0 ? "WIN" : "LOSS");
+        session.setPointsChange(lp);
+        session.setNotes(random.nextBoolean() ? sentence(random, 5, 30) : null);
+        session.setDate(date(start));
+        return session;
+    }
+
+    private Workout workout(String userId, SupportedGame game, SplittableRandom random) {
+        List<Exercise> exercises = new ArrayList<>();
+        for (int i = 0, n = 3 + random.nextInt(4); i < n; i++) {
+            Exercise exercise = new Exercise();
+            exercise.setId(id(random));
+            exercise.setTitle(EXERCISES[random.nextInt(EXERCISES.length)]);
+            exercise.setDescription(sentence(random, 5, 15));
+            exercise.setDuration((5 + random.nextInt(11)) + "m");
+            exercise.setRepetitions(random.nextInt(4) == 0 ? 1 + random.nextInt(5) : null);
+            ExerciseMetric metric = new ExerciseMetric();
+            metric.setId(id(random));
+            metric.setType(random.nextBoolean() ? "SCORE" : "PERCENTAGE");
+            metric.setLabel(metric.getType().equals("SCORE") ? "Score" : "Accuracy");
+            metric.setUnit(metric.getType().equals("SCORE") ? "pts" : "%");
+            exercise.setMetrics(List.of(metric));
+            exercises.add(exercise);
+        }
+
+        Workout workout = new Workout();
+        workout.setId(id(random));
+        workout.setUserId(userId);
+        workout.setGameId(game.name().toLowerCase());
+        workout.setGame(game);
+        workout.setTitle(EXERCISES[random.nextInt(EXERCISES.length)] + " routine");
+        workout.setDescription(sentence(random, 8, 25));
+        workout.setCategory(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+        workout.setDuration((15 + 5 * random.nextInt(10)) + "m");
+        workout.setDifficulty(DIFFICULTIES[random.nextInt(DIFFICULTIES.length)]);
+        workout.setExercises(exercises);
+        workout.setTags(tags(random));
+        return workout;
+    }
+
+    private TrainingSession trainingSession(String userId, Workout workout, SplittableRandom random) {
+        long date = START_DATE + random.nextLong(700) * DAY_MS;
+        List<ExerciseLog> logs = new ArrayList<>();
+        for (Exercise exercise : workout.getExercises()) {
+            ExerciseLog log = new ExerciseLog();
+            log.setExerciseId(exercise.getId());
+            log.setCompleted(random.nextInt(10) != 0);
+            log.setActualDuration(exercise.getDuration());
+            log.setScore(Math.round(random.nextDouble() * 1000) / 10.0);
+            Map<String, String> metrics = new HashMap<>();
+            for (ExerciseMetric metric : exercise.getMetrics()) {
+                metrics.put(metric.getId(), String.valueOf(metric.getType().equals("SCORE") ? random.nextInt(100_000) : random.nextInt(101)));
+            }
+            log.setMetrics(metrics);
+            log.setTimestamp(Instant.ofEpochMilli(date).toString());
+            logs.add(log);
+        }
+
+        TrainingSession session = new TrainingSession();
+        session.setId(id(random));
+        session.setUserId(userId);
+        session.setGameId(workout.getGameId());
+        session.setWorkoutId(workout.getId());
+        session.setTitle(workout.getTitle());
+        session.setType(workout.getCategory());
+        session.setDifficulty(workout.getDifficulty());
+        session.setTags(workout.getTags());
+        session.setNotes(random.nextInt(3) == 0 ? sentence(random, 5, 20) : null);
+        session.setCreatedAt(Instant.ofEpochMilli(date).toString());
+        session.setDate(Instant.ofEpochMilli(date).toString());
+        session.setDuration(workout.getDuration());
+        session.setLogs(logs);
+        session.setStatus(random.nextInt(10) == 0 ? "ABORTED" : "COMPLETED");
+        return session;
+    }
+
+    private Vod vod(String userId, SupportedGame game, SplittableRandom random) {
+        Vod vod = new Vod();
+        vod.setId(id(random));
+        vod.setUserId(userId);
+        vod.setTitle(MAPS[random.nextInt(MAPS.length)] + " " + CHAMPIONS[random.nextInt(CHAMPIONS.length)] + " review");
+        vod.setGameId(game.name().toLowerCase());
+        vod.setGame(game);
+        vod.setReplay(random.nextInt(4) == 0);
+        vod.setType(vod.isReplay() ? VodType.REPLAY : VodType.YOUTUBE);
+        vod.setUrl(vod.isReplay() ? null : "https://www.youtube.com/watch?v=" + id(random).substring(0, 11));
+        vod.setDate(date(START_DATE + random.nextLong(700) * DAY_MS));
+        vod.setDuration((20 + random.nextInt(40)) + ":00");
+        vod.setTags(tags(random));
+        vod.setNotes(random.nextBoolean() ? sentence(random, 5, 40) : null);
+        return vod;
+    }
+
+    private VodComment vodComment(Vod vod, SplittableRandom random) {
+        VodComment comment = new VodComment();
+        comment.setId(id(random));
+        comment.setVodId(vod.getId());
+        comment.setUserId(vod.getUserId());
+        comment.setTimestampSeconds(random.nextInt(3600));
+        comment.setText(sentence(random, 3, 15));
+        comment.setCreatedAt(START_DATE + random.nextLong(700) * DAY_MS);
+        return comment;
+    }
+
+    private GameConfig gameConfig(String id, SupportedGame game, SplittableRandom random) {
+        GameConfig config = new GameConfig();
+        config.setId(id);
+        config.setGame(game.name());
+        config.setDisplayName(game.name().replace('_', ' '));
+        config.setHidden(false);
+        List<GameConfig.ConfigMap> maps = new ArrayList<>();
+        for (String map : MAPS) {
+            maps.add(new GameConfig.ConfigMap(null, map, "https://cdn.projectpb.dev/maps/" + id(random) + ".png"));
+        }
+        List<GameConfig.ConfigAgent> agents = new ArrayList<>();
+        for (String champion : CHAMPIONS) {
+            agents.add(new GameConfig.ConfigAgent(null, champion, "https://cdn.projectpb.dev/agents/" + id(random) + ".png"));
+        }
+        config.setMaps(maps);
+        config.setAgents(agents);
+        return config;
+    }
+
+    private static String id(SplittableRandom random) {
+        return new UUID(random.nextLong(), random.nextLong()).toString();
+    }
+
+    private static <T> T pick(List<T> values, SplittableRandom random) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private static String date(long epochMillis) {
+        return LocalDate.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC).toString();
+    }
+
+    private static List<String> tags(SplittableRandom random) {
+        Set<String> tags = new LinkedHashSet<>();
+        for (int i = 0, n = random.nextInt(5); i < n; i++) {
+            tags.add(TAGS[random.nextInt(TAGS.length)]);
+        }
+        return new ArrayList<>(tags);
+    }
+
+    private static String sentence(SplittableRandom random, int minWords, int maxWords) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0, n = minWords + random.nextInt(maxWords - minWords + 1); i < n; i++) {
+            if (i > 0) {
+                sentence.append(' ');
+            }
+            sentence.append(NOTE_WORDS[random.nextInt(NOTE_WORDS.length)]);
+        }
+        return sentence.toString();
+    }
+
+    private void insert(Class<?> type, List<?> documents) {
+        if (documents.isEmpty()) {
+            return;
+        }
+        mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, type).insert(documents).execute();
+        written.get(type).addAndGet(documents.size());
+    }
+
+    private void reportProgress(long start) {
+        try {
+            while (true) {
+                Thread.sleep(5000);
+                report(start, "Seeding");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void report(long start, String label) {
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long total = written.values().stream().mapToLong(AtomicLong::get).sum();
+        StringJoiner counts = new StringJoiner(", ");
+        written.forEach((type, count) -> counts.add(mongoTemplate.getCollectionName(type) + "=" + count.get()));
+        logger.info("{}: {} documents in {}s ({} docs/s) [{}]",
+                label, total, String.format("%.1f", seconds), Math.round(total / Math.max(seconds, 0.001)), counts);
+    }
+
+    // Pending documents of one worker, per collection
+    private class Batches {
+        private final Map<Class<?>, List<Object>> pending = new LinkedHashMap<>();
+
+        void add(Object document) {
+            List<Object> batch = pending.computeIfAbsent(document.getClass(), type -> new ArrayList<>(batchSize));
+            batch.add(document);
+            if (batch.size() >= batchSize) {
+                insert(document.getClass(), batch);
+                batch.clear();
+            }
+        }
+
+        void flushAll() {
+            pending.forEach(SyntheticDataSeeder.this::insert);
+            pending.clear();
+        }
+    }
+}
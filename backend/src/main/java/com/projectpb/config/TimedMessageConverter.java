@@ -0,0 +1,98 @@
+package com.projectpb.config;
+
+import com.projectpb.service.RequestTiming;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Records the serialization of response bodies by a Jackson converter (JSON, Smile, CBOR) in the
+ * {@link RequestTiming.Phase#JSON} phase of the sampled requests; everything else is delegated as is.
+ */
+class TimedMessageConverter implements GenericHttpMessageConverter<Object> {
+
+    private final AbstractJackson2HttpMessageConverter delegate;
+
+    TimedMessageConverter(AbstractJackson2HttpMessageConverter delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * {@code converter} timed if it is a Jackson converter, unchanged otherwise.
+     */
+    static HttpMessageConverter<?> timed(HttpMessageConverter<?> converter) {
+        return converter instanceof AbstractJackson2HttpMessageConverter jackson ? new TimedMessageConverter(jackson) : converter;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return delegate.canRead(clazz, mediaType);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return delegate.canRead(type, contextClass, mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return delegate.canWrite(clazz, mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return delegate.canWrite(type, clazz, mediaType);
+    }
+
+    @Override
+    public List<MediaType> getSupportedMediaTypes() {
+        return delegate.getSupportedMediaTypes();
+    }
+
+    @Override
+    public List<MediaType> getSupportedMediaTypes(Class<?> clazz) {
+        return delegate.getSupportedMediaTypes(clazz);
+    }
+
+    @Override
+    public Object read(Class<?> clazz, HttpInputMessage inputMessage) throws IOException, HttpMessageNotReadableException {
+        return delegate.read(clazz, inputMessage);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage)
+            throws IOException, HttpMessageNotReadableException {
+        return delegate.read(type, contextClass, inputMessage);
+    }
+
+    @Override
+    public void write(Object object, MediaType contentType, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        long started = RequestTiming.now();
+        try {
+            delegate.write(object, contentType, outputMessage);
+        } finally {
+            RequestTiming.record(RequestTiming.Phase.JSON, started);
+        }
+    }
+
+    @Override
+    public void write(Object object, Type type, MediaType contentType, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        long started = RequestTiming.now();
+        try {
+            delegate.write(object, type, contentType, outputMessage);
+        } finally {
+            RequestTiming.record(RequestTiming.Phase.JSON, started);
+        }
+    }
+}
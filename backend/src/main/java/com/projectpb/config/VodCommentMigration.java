@@ -0,0 +1,42 @@
+package com.projectpb.config;
+
+import com.projectpb.model.Vod;
+import com.projectpb.service.VodCommentService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Moves the comments still embedded in vod documents to the vod_comments timeline, once at startup,
+ * so reading a vod never writes. Comments keep their ids: a migration interrupted midway overwrites
+ * the same comments on the next start; vods without embedded comments are not touched.
+ */
+@Configuration
+public class VodCommentMigration {
+    private static final Logger logger = LoggerFactory.getLogger(VodCommentMigration.class);
+
+    @Bean
+    public CommandLineRunner migrateVodComments(MongoTemplate mongoTemplate, VodCommentService commentService) {
+        return args -> {
+            int migrated = 0;
+            try (Stream<Vod> vods = mongoTemplate.stream(new Query(where("comments").exists(true)), Vod.class)) {
+                for (Iterator<Vod> cursor = vods.iterator(); cursor.hasNext(); ) {
+                    commentService.migrateEmbedded(cursor.next());
+                    migrated++;
+                }
+            }
+            if (migrated > 0) {
+                logger.info("Moved the comments of {} vods to the timeline", migrated);
+            }
+        };
+    }
+}
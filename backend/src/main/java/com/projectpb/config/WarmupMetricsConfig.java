@@ -0,0 +1,21 @@
+package com.projectpb.config;
+
+import com.projectpb.service.WarmupTraffic;
+import io.micrometer.observation.ObservationPredicate;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+
+/**
+ * Keeps the requests of {@link WarmupRunner} out of {@code http.server.requests}: they are slower than real traffic
+ * by design (cold code) and would skew its percentiles on every restart.
+ */
+@Configuration
+public class WarmupMetricsConfig {
+
+    @Bean
+    public ObservationPredicate ignoreWarmupRequests(WarmupTraffic warmupTraffic) {
+        return (name, context) -> !(context instanceof ServerRequestObservationContext request
+                && warmupTraffic.isWarmup(request.getCarrier()));
+    }
+}
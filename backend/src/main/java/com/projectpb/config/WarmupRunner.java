@@ -0,0 +1,318 @@
+package com.projectpb.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projectpb.controller.RankedSessionController;
+import com.projectpb.controller.TrainingSessionController;
+import com.projectpb.controller.VodController;
+import com.projectpb.controller.WorkoutController;
+import com.projectpb.model.*;
+import com.projectpb.repository.UserRepository;
+import com.projectpb.service.ResponseCacheService;
+import com.projectpb.service.ResponseEncoding;
+import com.projectpb.service.WarmupTraffic;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Sends synthetic requests through the real HTTP stack (JWT filter, controllers, Jackson in both directions) before
+ * the instance reports ready, so the first real requests don't run interpreted code. Readiness is only reported once
+ * every ApplicationRunner has returned.
+ * The requests are made as a throwaway user created for the warm-up, which is deleted with everything it wrote.
+ * A failed warm-up is logged and never fails the startup. The warm-up is left out of the request and slow query
+ * metrics (see {@link WarmupTraffic}).
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class WarmupRunner implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(WarmupRunner.class);
+
+    private static final String USERNAME_PREFIX = "warmup-";
+    // Only set here, never through registration: a registered "warmup-..." user is not mistaken for a leftover
+    private static final String WARMUP_ROLE = "ROLE_WARMUP";
+    // Users left behind by an instance that died while warming up; younger ones may still be in use
+    private static final Duration STALE_AFTER = Duration.ofHours(1);
+    private static final int GAMES = 20;
+
+    private static final List<Class<?>> USER_DOCUMENTS = List.of(RankedSession.class, RankedGameBucket.class,
+            TrainingSession.class, Workout.class, Vod.class);
+    private static final List<String> CACHE_NAMES = List.of(RankedSessionController.CACHE_NAME, TrainingSessionController.CACHE_NAME,
+            WorkoutController.CACHE_NAME, VodController.CACHE_NAME);
+
+    private final WebServerApplicationContext context;
+    private final UserRepository userRepository;
+    private final MongoTemplate mongoTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final ObjectMapper objectMapper;
+    private final ResponseCacheService responseCache;
+    private final WarmupTraffic warmupTraffic;
+    private final boolean enabled;
+    private final int iterations;
+    private final long maxSeconds;
+    private final int concurrency;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    public WarmupRunner(WebServerApplicationContext context,
+                        UserRepository userRepository,
+                        MongoTemplate mongoTemplate,
+                        PasswordEncoder passwordEncoder,
+                        ObjectMapper objectMapper,
+                        ResponseCacheService responseCache,
+                        WarmupTraffic warmupTraffic,
+                        @Value("${projectpb.warmup.enabled:false}") boolean enabled,
+                        @Value("${projectpb.warmup.iterations:2000}") int iterations,
+                        @Value("${projectpb.warmup.maxSeconds:30}") long maxSeconds,
+                        @Value("${projectpb.warmup.concurrency:4}") int concurrency) {
+        this.context = context;
+        this.userRepository = userRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.objectMapper = objectMapper;
+        this.responseCache = responseCache;
+        this.warmupTraffic = warmupTraffic;
+        this.enabled = enabled;
+        this.iterations = iterations;
+        this.maxSeconds = maxSeconds;
+        this.concurrency = Math.max(1, concurrency);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        // Checked here rather than with @ConditionalOnProperty, which AOT processing would freeze at build time
+        if (!enabled || context.getWebServer() == null) {
+            return;
+        }
+        try {
+            removeStaleUsers();
+        } catch (Exception e) {
+            logger.warn("Could not remove stale warm-up users: {}", e.getMessage());
+        }
+
+        String password = UUID.randomUUID().toString();
+        User user = new User();
+        user.setUsername(USERNAME_PREFIX + System.currentTimeMillis() + "-" + UUID.randomUUID().toString().substring(0, 8));
+        user.setEmail(user.getUsername() + "@warmup.invalid");
+        user.setPassword(passwordEncoder.encode(password));
+        user.setRoles(Set.of("ROLE_USER", WARMUP_ROLE));
+        user.setCreatedDate(Instant.now());
+
+        long started = System.nanoTime();
+        warmupTraffic.setActive(true);
+        try {
+            user = userRepository.save(user);
+            Result result = warmUp(user.getUsername(), password, started + TimeUnit.SECONDS.toNanos(maxSeconds));
+            logger.info("JIT warm-up: {} requests ({} failed) in {} ms", result.requests(), result.failed(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } catch (Exception e) {
+            logger.warn("JIT warm-up aborted after {} ms: {}", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started), e.toString());
+        } finally {
+            if (user.getId() != null) {
+                remove(user.getId());
+            }
+            warmupTraffic.setActive(false);
+        }
+    }
+
+    private Result warmUp(String username, String password, long deadline) throws Exception {
+        String baseUrl = "http://localhost:" + context.getWebServer().getPort() + "/api/v1";
+        Map<String, String> login = Map.of("username", username, "password", password);
+        String token = objectMapper.readTree(send(baseUrl, null, "POST", "/auth/login", login, MediaType.APPLICATION_JSON_VALUE))
+                .get("token").asText();
+
+        // One document per list endpoint, rewritten in turn so the lists are read from Mongo again and not only from the cache
+        Map<String, Object> documents = new LinkedHashMap<>();
+        documents.put("/ranked-sessions", rankedSession());
+        documents.put("/training-sessions", trainingSession());
+        documents.put("/workouts", workout());
+        documents.put("/vods", vod());
+        Map<String, String> ids = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> document : documents.entrySet()) {
+            String body = send(baseUrl, token, "POST", document.getKey(), document.getValue(), MediaType.APPLICATION_JSON_VALUE);
+            ids.put(document.getKey(), objectMapper.readTree(body).get("id").asText());
+        }
+        List<String> paths = List.copyOf(documents.keySet());
+
+        AtomicInteger next = new AtomicInteger();
+        AtomicLong requests = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int worker = 0; worker < concurrency; worker++) {
+                executor.submit(() -> {
+                    int iteration;
+                    while ((iteration = next.getAndIncrement()) < iterations && System.nanoTime() < deadline) {
+                        String written = paths.get(iteration % paths.size());
+                        // A quarter of the list reads negotiate Smile to warm the binary encodings too
+                        String accept = iteration % 4 == 3 ? ResponseEncoding.SMILE.mediaType().toString() : MediaType.APPLICATION_JSON_VALUE;
+                        List<Step> steps = new ArrayList<>();
+                        steps.add(new Step("PUT", written + "/" + ids.get(written), documents.get(written), MediaType.APPLICATION_JSON_VALUE));
+                        for (String path : paths) {
+                            steps.add(new Step("GET", path, null, accept));
+                        }
+                        steps.add(new Step("GET", "/ranked-sessions/" + ids.get("/ranked-sessions"), null, MediaType.APPLICATION_JSON_VALUE));
+                        steps.add(new Step("GET", "/bootstrap", null, MediaType.APPLICATION_JSON_VALUE));
+                        for (Step step : steps) {
+                            requests.incrementAndGet();
+                            try {
+                                send(baseUrl, token, step.method(), step.path(), step.body(), step.accept());
+                            } catch (IOException e) {
+                                failed.incrementAndGet();
+                            }
+                        }
+                    }
+                    return null;
+                });
+            }
+        }
+        return new Result(requests.get(), failed.get());
+    }
+
+    private String send(String baseUrl, String token, String method, String path, Object body, String accept)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(10))
+                .header(HttpHeaders.ACCEPT, accept)
+                .header(WarmupTraffic.HEADER, warmupTraffic.token());
+        if (token != null) {
+            builder.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        }
+        if (body != null) {
+            builder.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        } else {
+            builder.method(method, HttpRequest.BodyPublishers.noBody());
+        }
+        HttpResponse<String> response = client.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 400) {
+            throw new IOException(method + " " + path + " returned " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    private void removeStaleUsers() {
+        List<User> stale = mongoTemplate.find(query(where("username").regex("^" + USERNAME_PREFIX)
+                .and("roles").is(WARMUP_ROLE)
+                .and("createdDate").lt(Instant.now().minus(STALE_AFTER))), User.class);
+        for (User user : stale) {
+            remove(user.getId());
+        }
+        if (!stale.isEmpty()) {
+            logger.info("Removed {} stale warm-up users", stale.size());
+        }
+    }
+
+    private void remove(String userId) {
+        try {
+            for (Class<?> type : USER_DOCUMENTS) {
+                mongoTemplate.remove(query(where("userId").is(userId)), type);
+            }
+            for (String cacheName : CACHE_NAMES) {
+                responseCache.invalidate(cacheName, userId);
+            }
+            userRepository.deleteById(userId);
+        } catch (Exception e) {
+            logger.warn("Could not remove warm-up user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    private static RankedSession rankedSession() {
+        Random random = new Random(42);
+        List<Game> games = new ArrayList<>(GAMES);
+        for (int i = 0; i < GAMES; i++) {
+            Game game = new Game();
+            game.setId(UUID.randomUUID().toString());
+            game.setTimestamp(System.currentTimeMillis() - (GAMES - i) * 1_800_000L);
+            game.setChampion("Jett");
+            game.setAgentId("jett");
+            game.setMapId("ascent");
+            game.setResult(random.nextBoolean() ? GameResult.WIN : GameResult.LOSS);
+            game.setKills(random.nextInt(30));
+            game.setDeaths(random.nextInt(20));
+            game.setAssists(random.nextInt(15));
+            game.setLpChange(game.getResult() == GameResult.WIN ? 20 : -18);
+            game.setNotes("Warm-up game " + i);
+            games.add(game);
+        }
+        RankedSession session = new RankedSession();
+        session.setGameId("warmup");
+        session.setStartTime(System.currentTimeMillis());
+        session.setGames(games);
+        session.setStartLp(1200);
+        session.setCurrentLp(1240);
+        session.setTargetLp(1500);
+        session.setStatus("ACTIVE");
+        session.setMode("ranked");
+        return session;
+    }
+
+    private static TrainingSession trainingSession() {
+        TrainingSession session = new TrainingSession();
+        session.setGameId("warmup");
+        session.setTitle("Warm-up");
+        session.setType("Warmup");
+        session.setDifficulty("Moyen");
+        session.setTags(List.of("aim", "warmup"));
+        session.setDate(Instant.now().toString());
+        session.setDuration("15m");
+        session.setStatus("COMPLETED");
+        return session;
+    }
+
+    private static Workout workout() {
+        Workout workout = new Workout();
+        workout.setGameId("warmup");
+        workout.setTitle("Warm-up");
+        workout.setCategory("Warmup");
+        workout.setDuration("15m");
+        workout.setDifficulty("Facile");
+        workout.setTags(List.of("aim", "warmup"));
+        return workout;
+    }
+
+    private static Vod vod() {
+        Vod vod = new Vod();
+        vod.setGameId("warmup");
+        vod.setTitle("Warm-up");
+        vod.setType(VodType.REPLAY);
+        vod.setUrl("https://example.invalid/warmup");
+        vod.setDate(Instant.now().toString());
+        vod.setTags(List.of("review"));
+        return vod;
+    }
+
+    private record Step(String method, String path, Object body, String accept) {
+    }
+
+    private record Result(long requests, long failed) {
+    }
+}
@@ -0,0 +1,29 @@
+package com.projectpb.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projectpb.service.ResponseEncoding;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Smile and CBOR for every endpoint whose client asks for them. Added last, after the JSON converter,
+    // so requests without Accept or with wildcards keep getting JSON. The serialization of every Jackson
+    // converter is then timed for the Server-Timing header.
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new MappingJackson2SmileHttpMessageConverter(ResponseEncoding.SMILE.mapper(objectMapper)));
+        converters.add(new MappingJackson2CborHttpMessageConverter(ResponseEncoding.CBOR.mapper(objectMapper)));
+        converters.replaceAll(TimedMessageConverter::timed);
+    }
+}
@@ -1,24 +1,106 @@
 package com.projectpb.config;
 
+import com.projectpb.websocket.StompAuthInterceptor;
+import com.projectpb.websocket.StompMetricsInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    @Value("${projectpb.websocket.inbound.corePoolSize:4}")
+    private int inboundCorePoolSize;
+
+    @Value("${projectpb.websocket.inbound.maxPoolSize:16}")
+    private int inboundMaxPoolSize;
+
+    @Value("${projectpb.websocket.inbound.queueCapacity:1000}")
+    private int inboundQueueCapacity;
+
+    @Value("${projectpb.websocket.outbound.corePoolSize:4}")
+    private int outboundCorePoolSize;
+
+    @Value("${projectpb.websocket.outbound.maxPoolSize:16}")
+    private int outboundMaxPoolSize;
+
+    @Value("${projectpb.websocket.outbound.queueCapacity:1000}")
+    private int outboundQueueCapacity;
+
+    @Value("${projectpb.websocket.sendBufferSizeLimit:524288}")
+    private int sendBufferSizeLimit;
+
+    @Value("${projectpb.websocket.sendTimeLimitMs:10000}")
+    private int sendTimeLimitMs;
+
+    @Value("${projectpb.websocket.messageSizeLimit:65536}")
+    private int messageSizeLimit;
+
+    @Value("${projectpb.websocket.heartbeatMs:10000}")
+    private long heartbeatMs;
+
+    @Autowired
+    private StompAuthInterceptor stompAuthInterceptor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private TaskScheduler messageBrokerTaskScheduler;
+
+    @Autowired
+    public void setMessageBrokerTaskScheduler(@Lazy @Qualifier("messageBrokerTaskScheduler") TaskScheduler taskScheduler) {
+        this.messageBrokerTaskScheduler = taskScheduler;
+    }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         // Enable a simple memory-based message broker to carry the messages back to the client on destinations prefixed with /topic
-        // For production scaling with Redis, we would implement a Redis Pub/Sub bridge here or use an external STOMP broker.
-        config.enableSimpleBroker("/topic", "/queue");
+        // Other instances are reached through the Redis Pub/Sub bridge (see RedisRelayConfig).
+        config.enableSimpleBroker("/topic", "/queue")
+                .setHeartbeatValue(new long[]{heartbeatMs, heartbeatMs})
+                .setTaskScheduler(messageBrokerTaskScheduler);
         config.setApplicationDestinationPrefixes("/app");
         config.setUserDestinationPrefix("/user"); // Enabled for private messages
     }
 
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(stompAuthInterceptor, new StompMetricsInterceptor(meterRegistry, "inbound"));
+        registration.taskExecutor()
+                .corePoolSize(inboundCorePoolSize)
+                .maxPoolSize(inboundMaxPoolSize)
+                .queueCapacity(inboundQueueCapacity);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.interceptors(new StompMetricsInterceptor(meterRegistry, "outbound"));
+        registration.taskExecutor()
+                .corePoolSize(outboundCorePoolSize)
+                .maxPoolSize(outboundMaxPoolSize)
+                .queueCapacity(outboundQueueCapacity);
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // A session whose pending sends exceed the buffer or time limit is closed instead of buffering
+        // without bound, so one slow consumer cannot exhaust memory or block the outbound channel.
+        registration.setSendBufferSizeLimit(sendBufferSizeLimit)
+                .setSendTimeLimit(sendTimeLimitMs)
+                .setMessageSizeLimit(messageSizeLimit);
+    }
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         // Register the "/ws-projectpb" endpoint, enabling the SockJS protocol.
@@ -26,6 +108,9 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         registry.addEndpoint("/ws-projectpb")
                 .setAllowedOriginPatterns("*") // Allow all origins for dev
                 .withSockJS();
+
+        // Plain WebSocket endpoint for clients that don't need the SockJS fallbacks (mobile, native STOMP clients)
+        registry.addEndpoint("/ws-projectpb-native")
+                .setAllowedOriginPatterns("*");
     }
 }
-
@@ -0,0 +1,50 @@
+package com.projectpb.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.messaging.SubProtocolWebSocketHandler;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * WebSocket session metrics. The client channel thread pools are already published by Spring Boot
+ * as {@code executor.*} (name {@code clientInboundChannelExecutor} / {@code clientOutboundChannelExecutor}).
+ */
+@Configuration
+public class WebSocketMetricsConfig {
+
+    @Bean
+    public MeterBinder webSocketSessionMetrics(@Qualifier("subProtocolWebSocketHandler") WebSocketHandler webSocketHandler) {
+        WebSocketHandler handler = webSocketHandler instanceof WebSocketHandlerDecorator decorator
+                ? decorator.getLastHandler()
+                : webSocketHandler;
+        SubProtocolWebSocketHandler.Stats stats = ((SubProtocolWebSocketHandler) handler).getStats();
+
+        return registry -> {
+            sessions(registry, stats, "websocket", SubProtocolWebSocketHandler.Stats::getWebSocketSessions);
+            sessions(registry, stats, "http_streaming", SubProtocolWebSocketHandler.Stats::getHttpStreamingSessions);
+            sessions(registry, stats, "http_polling", SubProtocolWebSocketHandler.Stats::getHttpPollingSessions);
+            // Sessions closed by the server so far
+            closed(registry, stats, "limit_exceeded", SubProtocolWebSocketHandler.Stats::getLimitExceededSessions);
+            closed(registry, stats, "no_messages_received", SubProtocolWebSocketHandler.Stats::getNoMessagesReceivedSessions);
+            closed(registry, stats, "transport_error", SubProtocolWebSocketHandler.Stats::getTransportErrorSessions);
+        };
+    }
+
+    private static void sessions(MeterRegistry registry, SubProtocolWebSocketHandler.Stats stats,
+                                 String transport, ToDoubleFunction<SubProtocolWebSocketHandler.Stats> value) {
+        Gauge.builder("projectpb.websocket.sessions", stats, value).tag("transport", transport).register(registry);
+    }
+
+    private static void closed(MeterRegistry registry, SubProtocolWebSocketHandler.Stats stats,
+                               String reason, ToDoubleFunction<SubProtocolWebSocketHandler.Stats> value) {
+        FunctionCounter.builder("projectpb.websocket.sessions.closed", stats, value).tag("reason", reason).register(registry);
+    }
+}
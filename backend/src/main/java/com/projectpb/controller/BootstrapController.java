@@ -0,0 +1,117 @@
+package com.projectpb.controller;
+
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.projectpb.repository.GameConfigRepository;
+import com.projectpb.repository.UserConfigRepository;
+import com.projectpb.security.services.UserDetailsImpl;
+import com.projectpb.service.RequestTiming;
+import com.projectpb.service.ResponseCacheService;
+import com.projectpb.service.UserListService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Everything the dashboard needs on load in one request: the six reads run concurrently on virtual threads,
+ * each with its own timeout, so the response takes about as long as the slowest one.
+ * A part that fails or times out is returned as null and reported under {@code errors}.
+ */
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/v1/bootstrap")
+public class BootstrapController {
+
+    @Autowired
+    UserListService lists;
+
+    @Autowired
+    GameConfigRepository gameConfigRepository;
+
+    @Autowired
+    UserConfigRepository userConfigRepository;
+
+    @Autowired
+    ResponseCacheService responseCache;
+
+    @Value("${projectpb.bootstrap.timeoutMs:2000}")
+    private long timeoutMs;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private String getCurrentUserId() {
+        UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        return userDetails.getId();
+    }
+
+    // JSON only: the cached parts are embedded as raw JSON
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public Map<String, Object> bootstrap() {
+        // The security context is bound to this thread: resolve the user before fanning out
+        String userId = getCurrentUserId();
+
+        Map<String, CompletableFuture<Object>> parts = new LinkedHashMap<>();
+        // The four user lists share the cached serialized bodies (and the loaders) of their own endpoints
+        parts.put("workouts", submit(() -> cached(WorkoutController.CACHE_NAME, userId, () -> lists.workouts(userId))));
+        parts.put("trainingSessions", submit(() -> cached(TrainingSessionController.CACHE_NAME, userId, () -> lists.trainingSessions(userId))));
+        parts.put("rankedSessions", submit(() -> cached(RankedSessionController.CACHE_NAME, userId, () -> lists.rankedSessions(userId))));
+        parts.put("vods", submit(() -> cached(VodController.CACHE_NAME, userId, () -> lists.vods(userId))));
+        parts.put("gameConfigs", submit(() -> gameConfigRepository.findAll()));
+        parts.put("config", submit(() -> userConfigRepository.findByUserId(userId).orElse(null)));
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        Map<String, String> errors = new LinkedHashMap<>();
+        parts.forEach((name, part) -> {
+            try {
+                response.put(name, part.join());
+            } catch (CompletionException e) {
+                response.put(name, null);
+                errors.put(name, e.getCause() instanceof TimeoutException ? "timeout" : "failed");
+            }
+        });
+        response.put("errors", errors);
+        return response;
+    }
+
+    private CompletableFuture<Object> submit(Supplier<Object> read) {
+        // The parts' Mongo and serialization time still count toward this request's Server-Timing
+        RequestTiming timing = RequestTiming.current();
+        CompletableFuture<Object> part = new CompletableFuture<>();
+        Future<?> task = executor.submit(() -> {
+            try {
+                part.complete(RequestTiming.supplyWith(timing, read));
+            } catch (Throwable e) {
+                part.completeExceptionally(e);
+            }
+        });
+        // orTimeout only completes the future: interrupt the read still running on its virtual thread
+        return part.orTimeout(timeoutMs, TimeUnit.MILLISECONDS).whenComplete((value, e) -> {
+            if (e instanceof TimeoutException) {
+                task.cancel(true);
+            }
+        });
+    }
+
+    private Object cached(String collection, String userId, Supplier<?> loader) {
+        return new RawValue(new String(responseCache.get(collection, userId, loader), StandardCharsets.UTF_8));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -9,8 +9,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.UUID;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -41,7 +45,12 @@ public class GameConfigController {
     }
 
     @PostMapping
-    public GameConfig save(@RequestBody GameConfig config) {
+    public ResponseEntity<?> save(@RequestBody GameConfig config) {
+        String error = validate(config);
+        if (error != null) {
+            return ResponseEntity.badRequest().body(Map.of("message", error));
+        }
+
         // We still track who modified/created it, but we don't restrict updates based on ownership anymore
         String userId = getCurrentUserId();
         config.setUserId(userId);
@@ -50,7 +59,37 @@ public class GameConfigController {
             config.setId(UUID.randomUUID().toString());
         }
         
-        return repository.save(config);
+        return ResponseEntity.ok(repository.save(config));
+    }
+
+    // Every map, agent and metric needs a name, and their ids must be unique so games can reference them
+    private static String validate(GameConfig config) {
+        String error = validate("map", config.getMaps(), GameConfig.ConfigMap::id);
+        if (error == null) {
+            error = validate("agent", config.getAgents(), GameConfig.ConfigAgent::id);
+        }
+        if (error == null) {
+            error = validate("metric", config.getMetrics(), GameConfig.ConfigMetric::id);
+        }
+        return error;
+    }
+
+    private static <T> String validate(String kind, List<T> entries, Function<T, String> id) {
+        if (entries == null) {
+            return null;
+        }
+        Set<String> ids = new HashSet<>();
+        for (T entry : entries) {
+            // The id defaults to the slug of the name: no id means no usable name
+            String entryId = entry != null ? id.apply(entry) : null;
+            if (entryId == null) {
+                return "Error: every " + kind + " needs a name";
+            }
+            if (!ids.add(entryId)) {
+                return "Error: duplicate " + kind + " id '" + entryId + "'";
+            }
+        }
+        return null;
     }
 
     @DeleteMapping("/{id}")
@@ -0,0 +1,60 @@
+package com.projectpb.controller;
+
+import com.projectpb.model.RankedSession;
+import com.projectpb.model.SessionMonthSummary;
+import com.projectpb.model.TrainingSession;
+import com.projectpb.repository.SessionMonthSummaryRepository;
+import com.projectpb.security.services.UserDetailsImpl;
+import com.projectpb.service.HistoryArchiveService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/v1/history")
+public class HistoryController {
+    private static final int MAX_SIZE = 100;
+
+    @Autowired
+    SessionMonthSummaryRepository repository;
+
+    @Autowired
+    HistoryArchiveService history;
+
+    private String getCurrentUserId() {
+        UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        return userDetails.getId();
+    }
+
+    // Monthly stats of the archived sessions, type RANKED or TRAINING, oldest month first
+    @GetMapping("/months")
+    public List<SessionMonthSummary> months(@RequestParam(defaultValue = SessionMonthSummary.RANKED) String type) {
+        return repository.findByUserIdAndTypeOrderByMonthAsc(getCurrentUserId(), type.toUpperCase());
+    }
+
+    // Archived sessions, newest first, one page at a time (the lists only hold the recent ones)
+    @GetMapping("/ranked-sessions")
+    public ResponseEntity<List<RankedSession>> rankedSessions(@RequestParam(required = false) String gameId,
+                                                              @RequestParam(defaultValue = "0") int page,
+                                                              @RequestParam(defaultValue = "20") int size) {
+        if (page < 0 || size < 1 || size > MAX_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(history.rankedSessions(getCurrentUserId(), gameId, page, size));
+    }
+
+    @GetMapping("/training-sessions")
+    public ResponseEntity<List<TrainingSession>> trainingSessions(@RequestParam(required = false) String gameId,
+                                                                  @RequestParam(required = false) String workoutId,
+                                                                  @RequestParam(defaultValue = "0") int page,
+                                                                  @RequestParam(defaultValue = "20") int size) {
+        if (page < 0 || size < 1 || size > MAX_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(history.trainingSessions(getCurrentUserId(), gameId, workoutId, page, size));
+    }
+}
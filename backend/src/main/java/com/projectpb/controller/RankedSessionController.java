@@ -1,14 +1,22 @@
 package com.projectpb.controller;
 
+import com.projectpb.model.Game;
 import com.projectpb.model.RankedSession;
 import com.projectpb.repository.RankedSessionRepository;
 import com.projectpb.security.services.UserDetailsImpl;
+import com.projectpb.service.HistoryArchiveService;
+import com.projectpb.service.RankedGameStore;
+import com.projectpb.service.RankedSessionNotifier;
+import com.projectpb.service.ResponseCacheService;
+import com.projectpb.service.ResponseEncoding;
+import com.projectpb.service.UserListService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.Optional;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -16,26 +24,52 @@ import java.util.Optional;
 @RequestMapping("/api/v1/ranked-sessions")
 public class RankedSessionController {
 
+    public static final String CACHE_NAME = "ranked-sessions";
+
     @Autowired
     RankedSessionRepository repository;
 
+    @Autowired
+    ResponseCacheService responseCache;
+
+    @Autowired
+    UserListService lists;
+
+    @Autowired
+    RankedSessionNotifier notifier;
+
+    @Autowired
+    RankedGameStore gameStore;
+
+    @Autowired
+    HistoryArchiveService history;
+
     private String getCurrentUserId() {
         UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         return userDetails.getId();
     }
 
+    private String getCurrentUsername() {
+        return SecurityContextHolder.getContext().getAuthentication().getName();
+    }
+
+    // JSON, or Smile / CBOR when the client asks for them in Accept. Recent sessions only, see /api/v1/history for the archived ones.
     @GetMapping
-    public List<RankedSession> getAll() {
-        return repository.findByUserId(getCurrentUserId());
+    public ResponseEntity<byte[]> getAll(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        String userId = getCurrentUserId();
+        ResponseEncoding encoding = ResponseEncoding.negotiate(accept);
+        byte[] body = responseCache.get(CACHE_NAME, userId, encoding, () -> lists.rankedSessions(userId));
+        return ResponseEntity.ok().contentType(encoding.mediaType()).varyBy(HttpHeaders.ACCEPT).body(body);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<RankedSession> getById(@PathVariable String id) {
         Optional<RankedSession> item = repository.findById(id);
         if (item.isPresent() && item.get().getUserId().equals(getCurrentUserId())) {
-             return ResponseEntity.ok(item.get());
+            item.get().setGames(gameStore.games(item.get().getUserId(), id));
+            return ResponseEntity.ok(item.get());
         }
-        return ResponseEntity.notFound().build();
+        return ResponseEntity.of(history.rankedSession(getCurrentUserId(), id));
     }
 
     @PostMapping
@@ -44,28 +78,85 @@ public class RankedSessionController {
             item.setId(java.util.UUID.randomUUID().toString());
         }
         item.setUserId(getCurrentUserId());
-        return repository.save(item);
+        RankedSession saved = repository.save(item);
+        if (item.getGames() != null) {
+            gameStore.replace(saved.getUserId(), saved.getId(), item.getGames());
+        }
+        responseCache.invalidate(CACHE_NAME, saved.getUserId());
+        notifier.created(getCurrentUsername(), saved);
+        return saved;
     }
 
+    // Games sent with the session replace its games; without them the games are left as they are
     @PutMapping("/{id}")
     public ResponseEntity<RankedSession> update(@PathVariable String id, @RequestBody RankedSession item) {
-        Optional<RankedSession> existing = repository.findById(id);
+        Optional<RankedSession> existing = findOrRestore(id);
         if (existing.isPresent() && existing.get().getUserId().equals(getCurrentUserId())) {
             item.setId(id);
             item.setUserId(getCurrentUserId());
-            return ResponseEntity.ok(repository.save(item));
+            // Games first: the session is only saved once they are
+            if (item.getGames() != null) {
+                existing.get().setGames(gameStore.games(item.getUserId(), id)); // Compared by the notifier
+                if (!gameStore.replace(item.getUserId(), id, item.getGames())) {
+                    // A game was added meanwhile and nothing was written: the client reloads the session, then saves again
+                    return ResponseEntity.status(HttpStatus.CONFLICT).build();
+                }
+            }
+            RankedSession saved = repository.save(item);
+            responseCache.invalidate(CACHE_NAME, saved.getUserId());
+            notifier.updated(getCurrentUsername(), existing.get(), saved);
+            return ResponseEntity.ok(saved);
         }
         return ResponseEntity.notFound().build();
     }
 
+    // Appends a single game to the session's last bucket instead of rewriting the whole session
+    @PostMapping("/{id}/games")
+    public ResponseEntity<Game> addGame(@PathVariable String id, @RequestBody Game game) {
+        String userId = getCurrentUserId();
+        if (game.getId() == null) {
+            game.setId(java.util.UUID.randomUUID().toString());
+        }
+        if (game.getTimestamp() == null) {
+            game.setTimestamp(System.currentTimeMillis());
+        }
+
+        if (!repository.existsByIdAndUserId(id, userId) && !history.restoreRankedSession(userId, id)) {
+            return ResponseEntity.notFound().build();
+        }
+        gameStore.append(userId, id, game);
+
+        responseCache.invalidate(CACHE_NAME, userId);
+        notifier.gameAdded(getCurrentUsername(), userId, id, game);
+        return ResponseEntity.ok(game);
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable String id) {
         Optional<RankedSession> existing = repository.findById(id);
         if (existing.isPresent() && existing.get().getUserId().equals(getCurrentUserId())) {
             repository.deleteById(id);
+            gameStore.delete(existing.get().getUserId(), id);
+            responseCache.invalidate(CACHE_NAME, existing.get().getUserId());
+            notifier.deleted(getCurrentUsername(), existing.get());
+            return ResponseEntity.ok().build();
+        }
+        Optional<RankedSession> archived = history.deleteRankedSession(getCurrentUserId(), id);
+        if (archived.isPresent()) {
+            responseCache.invalidate(CACHE_NAME, archived.get().getUserId());
+            notifier.deleted(getCurrentUsername(), archived.get());
             return ResponseEntity.ok().build();
         }
         return ResponseEntity.notFound().build();
     }
+
+    // An archived session is moved back to the hot collections before it is modified
+    private Optional<RankedSession> findOrRestore(String id) {
+        Optional<RankedSession> existing = repository.findById(id);
+        if (existing.isEmpty() && history.restoreRankedSession(getCurrentUserId(), id)) {
+            existing = repository.findById(id);
+        }
+        return existing;
+    }
 }
 
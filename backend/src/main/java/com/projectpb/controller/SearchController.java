@@ -0,0 +1,41 @@
+package com.projectpb.controller;
+
+import com.projectpb.model.SearchResults;
+import com.projectpb.security.services.UserDetailsImpl;
+import com.projectpb.service.SearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/v1/search")
+public class SearchController {
+
+    private static final int MAX_SIZE = 100;
+
+    @Autowired
+    SearchService searchService;
+
+    private String getCurrentUserId() {
+        UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        return userDetails.getId();
+    }
+
+    @GetMapping
+    public ResponseEntity<SearchResults> search(@RequestParam String q,
+                                                @RequestParam(defaultValue = "0") int page,
+                                                @RequestParam(defaultValue = "20") int size) {
+        if (q.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_SIZE));
+        int pageIndex = Math.max(0, page);
+        // Only the first MAX_DEPTH hits can be paged through
+        if ((long) pageIndex * pageSize >= SearchService.MAX_DEPTH) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(searchService.search(getCurrentUserId(), q.trim(), pageIndex, pageSize));
+    }
+}
@@ -0,0 +1,25 @@
+package com.projectpb.controller;
+
+import com.projectpb.model.SlowQueryShape;
+import com.projectpb.service.SlowQueryDetector;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/v1/admin/slow-queries")
+@PreAuthorize("hasRole('ADMIN')")
+public class SlowQueryController {
+
+    @Autowired
+    SlowQueryDetector slowQueryDetector;
+
+    // Command shapes that spent the most time over the slow threshold, with their last sampled plan
+    @GetMapping
+    public List<SlowQueryShape> top(@RequestParam(defaultValue = "20") int limit) {
+        return slowQueryDetector.top(Math.max(1, Math.min(limit, 200)));
+    }
+}
@@ -0,0 +1,103 @@
+package com.projectpb.controller;
+
+import com.projectpb.model.Game;
+import com.projectpb.model.RankedGameBucket;
+import com.projectpb.model.RankedSession;
+import com.projectpb.model.RankedSessionSummary;
+import com.projectpb.model.TrainingSession;
+import com.projectpb.model.Vod;
+import com.projectpb.repository.ReactiveRankedGameBucketRepository;
+import com.projectpb.repository.ReactiveRankedSessionRepository;
+import com.projectpb.repository.ReactiveTrainingSessionRepository;
+import com.projectpb.repository.ReactiveVodRepository;
+import com.projectpb.security.services.UserDetailsImpl;
+import com.projectpb.service.HistoryArchiveService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Streaming variants of the heavy list endpoints, backed by the reactive repositories.
+ * Documents are written as Server-Sent Events or newline-delimited JSON as they arrive from Mongo,
+ * one at a time as the client consumes them, without holding a request thread for the whole query.
+ */
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping(value = "/api/v1/stream", produces = {MediaType.TEXT_EVENT_STREAM_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+public class StreamController {
+
+    private static final int PREFETCH_SESSIONS = 4;
+
+    @Autowired
+    ReactiveRankedSessionRepository rankedSessionRepository;
+
+    @Autowired
+    ReactiveRankedGameBucketRepository rankedGameBucketRepository;
+
+    @Autowired
+    ReactiveTrainingSessionRepository trainingSessionRepository;
+
+    @Autowired
+    HistoryArchiveService history;
+
+    @Autowired
+    ReactiveVodRepository vodRepository;
+
+    private String getCurrentUserId() {
+        UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        return userDetails.getId();
+    }
+
+    // Each session's buckets are read as it is streamed, a few sessions ahead. Recent sessions only, like the lists
+    @GetMapping("/ranked-sessions")
+    public Flux<RankedSession> rankedSessions() {
+        String userId = getCurrentUserId();
+        return rankedSessionRepository.findByUserId(userId)
+                .flatMapSequential(session -> rankedGameBucketRepository.findByUserIdAndSessionIdOrderBySeqAsc(userId, session.getId())
+                        .concatMapIterable(RankedGameBucket::getGames)
+                        .collectList()
+                        .map(games -> {
+                            session.setGames(games);
+                            return session;
+                        }), PREFETCH_SESSIONS);
+    }
+
+    // Games of one session in order, bucket by bucket, from the archive when the session was archived
+    @GetMapping("/ranked-sessions/{id}/games")
+    public Flux<Game> rankedSessionGames(@PathVariable String id) {
+        String userId = getCurrentUserId();
+        return rankedGameBucketRepository.findByUserIdAndSessionIdOrderBySeqAsc(userId, id)
+                .concatMapIterable(RankedGameBucket::getGames)
+                .switchIfEmpty(history.streamRankedGames(userId, id));
+    }
+
+    // From the bucket aggregates: no game is read
+    @GetMapping("/ranked-sessions/stats")
+    public Flux<RankedSessionSummary> rankedSessionStats() {
+        String userId = getCurrentUserId();
+        return rankedGameBucketRepository.findAggregatesByUserId(userId)
+                .collectMultimap(RankedGameBucket::getSessionId)
+                .flatMapMany(buckets -> rankedSessionRepository.findByUserId(userId)
+                        .map(session -> RankedSessionSummary.of(session, list(buckets.get(session.getId())))));
+    }
+
+    @GetMapping("/training-sessions")
+    public Flux<TrainingSession> trainingSessions() {
+        return trainingSessionRepository.findByUserId(getCurrentUserId());
+    }
+
+    @GetMapping("/vods")
+    public Flux<Vod> vods() {
+        return vodRepository.findByUserId(getCurrentUserId());
+    }
+
+    private static List<RankedGameBucket> list(Collection<RankedGameBucket> buckets) {
+        return buckets != null ? new ArrayList<>(buckets) : List.of();
+    }
+}
@@ -0,0 +1,33 @@
+package com.projectpb.controller;
+
+import com.projectpb.model.TagSuggestion;
+import com.projectpb.security.services.UserDetailsImpl;
+import com.projectpb.service.TagSuggestService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/v1/tags")
+public class TagController {
+
+    private static final int MAX_LIMIT = 50;
+
+    @Autowired
+    TagSuggestService tagSuggestService;
+
+    private String getCurrentUserId() {
+        UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        return userDetails.getId();
+    }
+
+    // The user's most used tags starting with the prefix, across vods, workouts and training sessions
+    @GetMapping("/suggest")
+    public List<TagSuggestion> suggest(@RequestParam(defaultValue = "") String prefix,
+                                       @RequestParam(defaultValue = "10") int limit) {
+        return tagSuggestService.suggest(getCurrentUserId(), prefix, Math.max(1, Math.min(limit, MAX_LIMIT)));
+    }
+}
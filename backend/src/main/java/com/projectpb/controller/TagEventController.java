@@ -0,0 +1,32 @@
+package com.projectpb.controller;
+
+import com.projectpb.model.TagEventRecord;
+import com.projectpb.repository.TagEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.util.List;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/v1/games/{gameId}/tags")
+public class TagEventController {
+
+    private static final int MAX_LIMIT = 10000;
+
+    @Autowired
+    TagEventRepository repository;
+
+    // Replay of the live tags of a game between two epoch-millisecond timestamps, oldest first
+    @GetMapping
+    public List<TagEventRecord> replay(@PathVariable String gameId,
+                                       @RequestParam(defaultValue = "0") long from,
+                                       @RequestParam(required = false) Long to,
+                                       @RequestParam(defaultValue = "1000") int limit) {
+        Instant end = to != null ? Instant.ofEpochMilli(to) : Instant.now();
+        int size = Math.max(1, Math.min(limit, MAX_LIMIT));
+        return repository.findReplay(gameId, Instant.ofEpochMilli(from), end, PageRequest.of(0, size));
+    }
+}
@@ -3,12 +3,17 @@ package com.projectpb.controller;
 import com.projectpb.model.TrainingSession;
 import com.projectpb.repository.TrainingSessionRepository;
 import com.projectpb.security.services.UserDetailsImpl;
+import com.projectpb.service.HistoryArchiveService;
+import com.projectpb.service.ResponseCacheService;
+import com.projectpb.service.ResponseEncoding;
+import com.projectpb.service.TagSuggestService;
+import com.projectpb.service.UserListService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.Optional;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -16,17 +21,35 @@ import java.util.Optional;
 @RequestMapping("/api/v1/training-sessions")
 public class TrainingSessionController {
 
+    public static final String CACHE_NAME = "training-sessions";
+
     @Autowired
     TrainingSessionRepository repository;
 
+    @Autowired
+    ResponseCacheService responseCache;
+
+    @Autowired
+    UserListService lists;
+
+    @Autowired
+    TagSuggestService tagSuggest;
+
+    @Autowired
+    HistoryArchiveService history;
+
     private String getCurrentUserId() {
         UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         return userDetails.getId();
     }
 
+    // JSON, or Smile / CBOR when the client asks for them in Accept. Recent sessions only, see /api/v1/history for the archived ones.
     @GetMapping
-    public List<TrainingSession> getAll() {
-        return repository.findByUserId(getCurrentUserId());
+    public ResponseEntity<byte[]> getAll(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        String userId = getCurrentUserId();
+        ResponseEncoding encoding = ResponseEncoding.negotiate(accept);
+        byte[] body = responseCache.get(CACHE_NAME, userId, encoding, () -> lists.trainingSessions(userId));
+        return ResponseEntity.ok().contentType(encoding.mediaType()).varyBy(HttpHeaders.ACCEPT).body(body);
     }
 
     @GetMapping("/{id}")
@@ -35,7 +58,7 @@ public class TrainingSessionController {
         if (item.isPresent() && item.get().getUserId().equals(getCurrentUserId())) {
              return ResponseEntity.ok(item.get());
         }
-        return ResponseEntity.notFound().build();
+        return ResponseEntity.of(history.trainingSession(getCurrentUserId(), id));
     }
 
     @PostMapping
@@ -44,16 +67,22 @@ public class TrainingSessionController {
             item.setId(java.util.UUID.randomUUID().toString());
         }
         item.setUserId(getCurrentUserId());
-        return repository.save(item);
+        TrainingSession saved = repository.save(item);
+        responseCache.invalidate(CACHE_NAME, saved.getUserId());
+        tagSuggest.update(saved.getUserId(), null, saved.getTags());
+        return saved;
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<TrainingSession> update(@PathVariable String id, @RequestBody TrainingSession item) {
-        Optional<TrainingSession> existing = repository.findById(id);
+        Optional<TrainingSession> existing = findOrRestore(id);
         if (existing.isPresent() && existing.get().getUserId().equals(getCurrentUserId())) {
             item.setId(id);
             item.setUserId(getCurrentUserId());
-            return ResponseEntity.ok(repository.save(item));
+            TrainingSession saved = repository.save(item);
+            responseCache.invalidate(CACHE_NAME, saved.getUserId());
+            tagSuggest.update(saved.getUserId(), existing.get().getTags(), saved.getTags());
+            return ResponseEntity.ok(saved);
         }
         return ResponseEntity.notFound().build();
     }
@@ -63,9 +92,26 @@ public class TrainingSessionController {
         Optional<TrainingSession> existing = repository.findById(id);
         if (existing.isPresent() && existing.get().getUserId().equals(getCurrentUserId())) {
             repository.deleteById(id);
+            responseCache.invalidate(CACHE_NAME, existing.get().getUserId());
+            tagSuggest.update(existing.get().getUserId(), existing.get().getTags(), null);
+            return ResponseEntity.ok().build();
+        }
+        Optional<TrainingSession> archived = history.deleteTrainingSession(getCurrentUserId(), id);
+        if (archived.isPresent()) {
+            responseCache.invalidate(CACHE_NAME, archived.get().getUserId());
+            tagSuggest.update(archived.get().getUserId(), archived.get().getTags(), null);
             return ResponseEntity.ok().build();
         }
         return ResponseEntity.notFound().build();
     }
+
+    // An archived session is moved back to the hot collection before it is modified
+    private Optional<TrainingSession> findOrRestore(String id) {
+        Optional<TrainingSession> existing = repository.findById(id);
+        if (existing.isEmpty() && history.restoreTrainingSession(getCurrentUserId(), id)) {
+            existing = repository.findById(id);
+        }
+        return existing;
+    }
 }
 
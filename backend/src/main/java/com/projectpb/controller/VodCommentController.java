@@ -0,0 +1,72 @@
+package com.projectpb.controller;
+
+import com.projectpb.model.Vod;
+import com.projectpb.model.VodComment;
+import com.projectpb.repository.VodRepository;
+import com.projectpb.security.services.UserDetailsImpl;
+import com.projectpb.service.VodCommentService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Optional;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/v1/vods/{vodId}/comments")
+public class VodCommentController {
+
+    private static final int MAX_LIMIT = 500;
+
+    @Autowired
+    VodRepository vodRepository;
+
+    @Autowired
+    VodCommentService commentService;
+
+    private String getCurrentUserId() {
+        UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        return userDetails.getId();
+    }
+
+    private Optional<Vod> findOwnedVod(String vodId) {
+        return vodRepository.findById(vodId).filter(v -> v.getUserId().equals(getCurrentUserId()));
+    }
+
+    // Comments between two positions of the video (in seconds), in timeline order
+    @GetMapping
+    public ResponseEntity<List<VodComment>> timeline(@PathVariable String vodId,
+                                                     @RequestParam(defaultValue = "0") int from,
+                                                     @RequestParam(defaultValue = "" + Integer.MAX_VALUE) int to,
+                                                     @RequestParam(defaultValue = "0") int page,
+                                                     @RequestParam(defaultValue = "100") int limit) {
+        if (findOwnedVod(vodId).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        int size = Math.max(1, Math.min(limit, MAX_LIMIT));
+        return ResponseEntity.ok(commentService.timeline(vodId, from, to, Math.max(0, page), size));
+    }
+
+    @PostMapping
+    public ResponseEntity<VodComment> append(@PathVariable String vodId, @RequestBody VodComment comment) {
+        Optional<Vod> vod = findOwnedVod(vodId);
+        if (vod.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        // Comments are append-only: ids are always assigned by the server
+        comment.setId(null);
+        comment.setCreatedAt(null);
+        return ResponseEntity.ok(commentService.append(vod.get(), comment));
+    }
+
+    @DeleteMapping("/{commentId}")
+    public ResponseEntity<Void> delete(@PathVariable String vodId, @PathVariable String commentId) {
+        Optional<Vod> vod = findOwnedVod(vodId);
+        if (vod.isPresent() && commentService.delete(vod.get(), commentId)) {
+            return ResponseEntity.ok().build();
+        }
+        return ResponseEntity.notFound().build();
+    }
+}
@@ -3,12 +3,17 @@ package com.projectpb.controller;
 import com.projectpb.model.Vod;
 import com.projectpb.repository.VodRepository;
 import com.projectpb.security.services.UserDetailsImpl;
+import com.projectpb.service.ResponseCacheService;
+import com.projectpb.service.ResponseEncoding;
+import com.projectpb.service.TagSuggestService;
+import com.projectpb.service.UserListService;
+import com.projectpb.service.VodCommentService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.Optional;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -16,23 +21,42 @@ import java.util.Optional;
 @RequestMapping("/api/v1/vods")
 public class VodController {
 
+    public static final String CACHE_NAME = "vods";
+
     @Autowired
     VodRepository repository;
 
+    @Autowired
+    ResponseCacheService responseCache;
+
+    @Autowired
+    UserListService lists;
+
+    @Autowired
+    TagSuggestService tagSuggest;
+
+    @Autowired
+    VodCommentService commentService;
+
     private String getCurrentUserId() {
         UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         return userDetails.getId();
     }
 
+    // JSON, or Smile / CBOR when the client asks for them in Accept
     @GetMapping
-    public List<Vod> getAll() {
-        return repository.findByUserId(getCurrentUserId());
+    public ResponseEntity<byte[]> getAll(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        String userId = getCurrentUserId();
+        ResponseEncoding encoding = ResponseEncoding.negotiate(accept);
+        byte[] body = responseCache.get(CACHE_NAME, userId, encoding, () -> lists.vods(userId));
+        return ResponseEntity.ok().contentType(encoding.mediaType()).varyBy(HttpHeaders.ACCEPT).body(body);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<Vod> getById(@PathVariable String id) {
         Optional<Vod> item = repository.findById(id);
         if (item.isPresent() && item.get().getUserId().equals(getCurrentUserId())) {
+             // Comments are loaded separately through /vods/{id}/comments
              return ResponseEntity.ok(item.get());
         }
         return ResponseEntity.notFound().build();
@@ -44,7 +68,10 @@ public class VodController {
             item.setId(java.util.UUID.randomUUID().toString());
         }
         item.setUserId(getCurrentUserId());
-        return repository.save(item);
+        Vod saved = commentService.save(item);
+        responseCache.invalidate(CACHE_NAME, saved.getUserId());
+        tagSuggest.update(saved.getUserId(), null, saved.getTags());
+        return saved;
     }
 
     @PutMapping("/{id}")
@@ -53,7 +80,10 @@ public class VodController {
         if (existing.isPresent() && existing.get().getUserId().equals(getCurrentUserId())) {
             item.setId(id);
             item.setUserId(getCurrentUserId());
-            return ResponseEntity.ok(repository.save(item));
+            Vod saved = commentService.save(item);
+            responseCache.invalidate(CACHE_NAME, saved.getUserId());
+            tagSuggest.update(saved.getUserId(), existing.get().getTags(), saved.getTags());
+            return ResponseEntity.ok(saved);
         }
         return ResponseEntity.notFound().build();
     }
@@ -63,6 +93,9 @@ public class VodController {
         Optional<Vod> existing = repository.findById(id);
         if (existing.isPresent() && existing.get().getUserId().equals(getCurrentUserId())) {
             repository.deleteById(id);
+            commentService.deleteAll(id);
+            responseCache.invalidate(CACHE_NAME, existing.get().getUserId());
+            tagSuggest.update(existing.get().getUserId(), existing.get().getTags(), null);
             return ResponseEntity.ok().build();
         }
         return ResponseEntity.notFound().build();
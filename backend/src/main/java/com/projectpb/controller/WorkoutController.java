@@ -3,12 +3,16 @@ package com.projectpb.controller;
 import com.projectpb.model.Workout;
 import com.projectpb.repository.WorkoutRepository;
 import com.projectpb.security.services.UserDetailsImpl;
+import com.projectpb.service.ResponseCacheService;
+import com.projectpb.service.ResponseEncoding;
+import com.projectpb.service.TagSuggestService;
+import com.projectpb.service.UserListService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.Optional;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -16,17 +20,32 @@ import java.util.Optional;
 @RequestMapping("/api/v1/workouts")
 public class WorkoutController {
 
+    public static final String CACHE_NAME = "workouts";
+
     @Autowired
     WorkoutRepository repository;
 
+    @Autowired
+    ResponseCacheService responseCache;
+
+    @Autowired
+    UserListService lists;
+
+    @Autowired
+    TagSuggestService tagSuggest;
+
     private String getCurrentUserId() {
         UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         return userDetails.getId();
     }
 
+    // JSON, or Smile / CBOR when the client asks for them in Accept
     @GetMapping
-    public List<Workout> getAll() {
-        return repository.findByUserId(getCurrentUserId());
+    public ResponseEntity<byte[]> getAll(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        String userId = getCurrentUserId();
+        ResponseEncoding encoding = ResponseEncoding.negotiate(accept);
+        byte[] body = responseCache.get(CACHE_NAME, userId, encoding, () -> lists.workouts(userId));
+        return ResponseEntity.ok().contentType(encoding.mediaType()).varyBy(HttpHeaders.ACCEPT).body(body);
     }
 
     @GetMapping("/{id}")
@@ -44,7 +63,10 @@ public class WorkoutController {
             item.setId(java.util.UUID.randomUUID().toString());
         }
         item.setUserId(getCurrentUserId());
-        return repository.save(item);
+        Workout saved = repository.save(item);
+        responseCache.invalidate(CACHE_NAME, saved.getUserId());
+        tagSuggest.update(saved.getUserId(), null, saved.getTags());
+        return saved;
     }
 
     @PutMapping("/{id}")
@@ -53,7 +75,10 @@ public class WorkoutController {
         if (existing.isPresent() && existing.get().getUserId().equals(getCurrentUserId())) {
             item.setId(id);
             item.setUserId(getCurrentUserId());
-            return ResponseEntity.ok(repository.save(item));
+            Workout saved = repository.save(item);
+            responseCache.invalidate(CACHE_NAME, saved.getUserId());
+            tagSuggest.update(saved.getUserId(), existing.get().getTags(), saved.getTags());
+            return ResponseEntity.ok(saved);
         }
         return ResponseEntity.notFound().build();
     }
@@ -63,6 +88,8 @@ public class WorkoutController {
         Optional<Workout> existing = repository.findById(id);
         if (existing.isPresent() && existing.get().getUserId().equals(getCurrentUserId())) {
             repository.deleteById(id);
+            responseCache.invalidate(CACHE_NAME, existing.get().getUserId());
+            tagSuggest.update(existing.get().getUserId(), existing.get().getTags(), null);
             return ResponseEntity.ok().build();
         }
         return ResponseEntity.notFound().build();
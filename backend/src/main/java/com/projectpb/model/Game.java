@@ -8,6 +8,8 @@ public class Game {
     private String id;
     private Long timestamp;
     private String champion;
+    private String agentId; // GameConfig.ConfigAgent id
+    private String mapId; // GameConfig.ConfigMap id
     private GameResult result; // WIN, LOSS, REMAKE
     private int kills;
     private int deaths;
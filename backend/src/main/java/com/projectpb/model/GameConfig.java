@@ -1,13 +1,15 @@
 package com.projectpb.model;
 
+import com.fasterxml.jackson.annotation.JsonAlias;
 import lombok.Data;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.text.Normalizer;
 import java.util.List;
-import java.util.Map;
+import java.util.Locale;
 
 @Data
 @Document(collection = "game_configs")
@@ -26,10 +28,46 @@ public class GameConfig {
     private ConfigAssets assets;
     private boolean hidden = true;
     private ConfigFeatures features;
-    
-    private List<Map<String, Object>> maps;
-    private List<Map<String, Object>> agents;
-    private List<Map<String, Object>> metrics;
+
+    private List<ConfigMap> maps;
+    private List<ConfigAgent> agents;
+    private List<ConfigMetric> metrics;
+
+    /**
+     * Compact, stable id derived from a display name ("Icebox" -> "icebox", "KAY/O" -> "kay-o"),
+     * used by games and sessions to reference maps and agents.
+     */
+    public static String slug(String name) {
+        if (name == null) {
+            return null;
+        }
+        String slug = Normalizer.normalize(name, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("[^a-z0-9]+", "-")
+                .replaceAll("^-|-$", "");
+        return slug.isEmpty() ? null : slug;
+    }
+
+    // Entries without an id (created before ids existed, or by the admin pages) get the slug of their name
+
+    public record ConfigMap(String id, String name, String iconUrl) {
+        public ConfigMap {
+            id = id != null && !id.isBlank() ? id : slug(name);
+        }
+    }
+
+    public record ConfigAgent(String id, String name, String iconUrl) {
+        public ConfigAgent {
+            id = id != null && !id.isBlank() ? id : slug(name);
+        }
+    }
+
+    public record ConfigMetric(String id, @JsonAlias("name") String label, String unit, String type) {
+        public ConfigMetric {
+            id = id != null && !id.isBlank() ? id : slug(label);
+        }
+    }
 
     @Data
     public static class ConfigAssets {
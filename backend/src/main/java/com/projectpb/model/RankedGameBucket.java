@@ -0,0 +1,71 @@
+package com.projectpb.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A fixed-size slice of the games of a ranked session: bucket {@code seq} holds games
+ * {@code seq * bucketSize} to {@code (seq + 1) * bucketSize - 1}, in the order they were added.
+ * The aggregates cover the games of the bucket, so session stats never need the games themselves.
+ */
+@Data
+@Document(collection = "ranked_game_buckets")
+@CompoundIndex(name = "session_buckets", def = "{'userId': 1, 'sessionId': 1, 'seq': 1}")
+public class RankedGameBucket {
+    @Id
+    private String id; // {sessionId}:{seq}
+
+    private String sessionId;
+    private String userId;
+    private int seq;
+    private int count;
+    private List<Game> games;
+
+    // Aggregates of the games above
+    private int wins;
+    private int losses;
+    private int remakes;
+    private int lpChange;
+    private int kills;
+    private int deaths;
+    private int assists;
+    private Long firstTimestamp;
+    private Long lastTimestamp;
+
+    public static String id(String sessionId, int seq) {
+        return sessionId + ":" + seq;
+    }
+
+    public static RankedGameBucket of(String sessionId, String userId, int seq, List<Game> games) {
+        RankedGameBucket bucket = new RankedGameBucket();
+        bucket.setId(id(sessionId, seq));
+        bucket.setSessionId(sessionId);
+        bucket.setUserId(userId);
+        bucket.setSeq(seq);
+        bucket.setCount(games.size());
+        bucket.setGames(new ArrayList<>(games));
+        for (Game game : games) {
+            if (game.getResult() == GameResult.WIN) {
+                bucket.wins++;
+            } else if (game.getResult() == GameResult.LOSS) {
+                bucket.losses++;
+            } else if (game.getResult() == GameResult.REMAKE) {
+                bucket.remakes++;
+            }
+            bucket.lpChange += game.getLpChange();
+            bucket.kills += game.getKills();
+            bucket.deaths += game.getDeaths();
+            bucket.assists += game.getAssists();
+            if (game.getTimestamp() != null) {
+                bucket.firstTimestamp = bucket.firstTimestamp == null ? game.getTimestamp() : Math.min(bucket.firstTimestamp, game.getTimestamp());
+                bucket.lastTimestamp = bucket.lastTimestamp == null ? game.getTimestamp() : Math.max(bucket.lastTimestamp, game.getTimestamp());
+            }
+        }
+        return bucket;
+    }
+}
@@ -2,8 +2,11 @@ package com.projectpb.model;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Transient;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.Instant;
 import java.util.List;
 
 @Data
@@ -19,6 +22,8 @@ public class RankedSession {
     private SupportedGame game;
     private Long startTime;
     private Long endTime;
+    // Stored in ranked_game_buckets (see RankedGameStore), filled in when a session is read
+    @Transient
     private List<Game> games;
     private Integer startLp;
     private Integer currentLp;
@@ -31,5 +36,8 @@ public class RankedSession {
     private Integer pointsChange;
     private String notes;
     private String date;
-}
 
+    // Set on every save; the archive rollup only removes the version it copied
+    @LastModifiedDate
+    private Instant updatedAt;
+}
@@ -0,0 +1,33 @@
+package com.projectpb.model;
+
+import java.util.List;
+
+// Per-session stats without the embedded games, for history and charts
+public record RankedSessionSummary(
+        String id,
+        String gameId,
+        String status,
+        String date,
+        Long startTime,
+        Long endTime,
+        int games,
+        int wins,
+        int losses,
+        int lpChange) {
+
+    // From the aggregates of the session's buckets, without reading its games
+    public static RankedSessionSummary of(RankedSession session, List<RankedGameBucket> buckets) {
+        int games = 0;
+        int wins = 0;
+        int losses = 0;
+        int lpChange = 0;
+        for (RankedGameBucket bucket : buckets) {
+            games += bucket.getCount();
+            wins += bucket.getWins();
+            losses += bucket.getLosses();
+            lpChange += bucket.getLpChange();
+        }
+        return new RankedSessionSummary(session.getId(), session.getGameId(), session.getStatus(), session.getDate(),
+                session.getStartTime(), session.getEndTime(), games, wins, losses, lpChange);
+    }
+}
@@ -0,0 +1,17 @@
+package com.projectpb.model;
+
+import java.util.List;
+
+// One search result: the matching document (or comment, with the document it belongs to) and where the terms matched
+public record SearchHit(
+        String type,
+        String id,
+        String parentId,
+        String title,
+        double score,
+        List<Highlight> highlights) {
+
+    // A fragment of a matching field; each match is a [start, end) range of the fragment
+    public record Highlight(String field, String fragment, List<int[]> matches) {
+    }
+}
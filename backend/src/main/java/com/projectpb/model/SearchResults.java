@@ -0,0 +1,11 @@
+package com.projectpb.model;
+
+import java.util.List;
+
+public record SearchResults(
+        String query,
+        int page,
+        int size,
+        boolean hasMore,
+        List<SearchHit> hits) {
+}
@@ -0,0 +1,51 @@
+package com.projectpb.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Stats of one month of archived sessions of a user for one game, kept when the sessions leave the hot collections.
+ * Rebuilt from the archive whenever a session of the month is archived, restored or deleted.
+ */
+@Data
+@Document(collection = "session_month_summaries")
+@CompoundIndex(name = "user_months", def = "{'userId': 1, 'type': 1, 'month': 1}")
+public class SessionMonthSummary {
+    public static final String RANKED = "RANKED";
+    public static final String TRAINING = "TRAINING";
+
+    @Id
+    private String id; // {userId}:{type}:{gameId}:{month}
+
+    private String userId;
+    private String type; // RANKED, TRAINING
+    private String gameId;
+    private String month; // yyyy-MM
+    private int sessions;
+
+    // Ranked
+    private int games;
+    private int wins;
+    private int losses;
+    private int remakes;
+    private int lpChange;
+    private int kills;
+    private int deaths;
+    private int assists;
+
+    // Training
+    private int completed;
+    private int aborted;
+    private Map<String, Integer> tags;
+
+    private Instant updatedAt;
+
+    public static String id(String userId, String type, String gameId, String month) {
+        return userId + ":" + type + ":" + gameId + ":" + month;
+    }
+}
@@ -0,0 +1,21 @@
+package com.projectpb.model;
+
+// Slow executions of one normalized Mongo command shape (literal values replaced by "?"), with its last sampled plan
+public record SlowQueryShape(
+        String shape,
+        String command,
+        String collection,
+        long slowCount,
+        double avgMs,
+        double maxMs,
+        PlanSummary lastPlan) {
+
+    public record PlanSummary(
+            String plan, // winning plan stages, innermost first: "IXSCAN(userId_1) > FETCH"
+            long keysExamined,
+            long docsExamined,
+            long returned,
+            long executionMs,
+            long explainedAt) {
+    }
+}
@@ -0,0 +1,25 @@
+package com.projectpb.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.TimeSeries;
+import org.springframework.data.mongodb.core.timeseries.Granularity;
+
+import java.time.Instant;
+
+// Live tag sent during a match, kept for replay (MongoDB indexes gameId + timestamp of time-series collections itself)
+@Data
+@Document(collection = "tag_events")
+@TimeSeries(collection = "tag_events", timeField = "timestamp", metaField = "gameId", granularity = Granularity.SECONDS)
+public class TagEventRecord {
+    @Id
+    private String id;
+
+    private String gameId;
+    private Instant timestamp;
+    private String type;
+    private String userId;
+    private String origin; // Node that received the tag
+    private long sequence;
+}
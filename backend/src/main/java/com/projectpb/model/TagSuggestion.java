@@ -0,0 +1,5 @@
+package com.projectpb.model;
+
+// A tag the user already used, with how many vods, workouts and training sessions carry it
+public record TagSuggestion(String tag, int count) {
+}
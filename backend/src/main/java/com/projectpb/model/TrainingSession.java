@@ -2,8 +2,10 @@ package com.projectpb.model;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.Instant;
 import java.util.List;
 
 @Data
@@ -27,5 +29,8 @@ public class TrainingSession {
     private String duration; // String to support "15m" etc.
     private List<ExerciseLog> logs;
     private String status; // COMPLETED, ABORTED
-}
 
+    // Set on every save; the archive rollup only removes the version it copied
+    @LastModifiedDate
+    private Instant updatedAt;
+}
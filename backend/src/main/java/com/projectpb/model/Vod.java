@@ -26,6 +26,8 @@ public class Vod {
     private List<String> tags;
     private boolean isReplay;
     private String notes;
+    private int commentCount;
+    // Legacy embedded comments: moved to the vod_comments collection at startup (see VodCommentMigration)
     private List<VodComment> comments;
 }
 
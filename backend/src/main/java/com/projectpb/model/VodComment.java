@@ -1,12 +1,23 @@
 package com.projectpb.model;
 
+import com.fasterxml.jackson.annotation.JsonAlias;
 import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
 
 @Data
+@Document(collection = "vod_comments")
+@CompoundIndex(name = "vod_timeline", def = "{'vodId': 1, 'timestampSeconds': 1, 'createdAt': 1}")
 public class VodComment {
+    @Id
     private String id;
+
+    private String vodId;
+    private String userId;
+
+    @JsonAlias("seconds") // Older web clients send the position as "seconds"
     private int timestampSeconds;
     private String text;
     private Long createdAt;
 }
-
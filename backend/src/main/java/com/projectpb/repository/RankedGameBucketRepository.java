@@ -0,0 +1,20 @@
+package com.projectpb.repository;
+
+import com.projectpb.model.RankedGameBucket;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface RankedGameBucketRepository extends MongoRepository<RankedGameBucket, String> {
+    // Cursor-backed: close the stream
+    Stream<RankedGameBucket> streamByUserIdAndSessionIdOrderBySeqAsc(String userId, String sessionId);
+
+    Stream<RankedGameBucket> streamByUserIdOrderBySessionIdAscSeqAsc(String userId);
+
+    List<RankedGameBucket> findByUserIdAndSessionIdOrderBySeqAsc(String userId, String sessionId);
+
+    void deleteByUserIdAndSessionId(String userId, String sessionId);
+}
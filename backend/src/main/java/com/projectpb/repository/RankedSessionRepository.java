@@ -9,5 +9,7 @@ import java.util.List;
 @Repository
 public interface RankedSessionRepository extends MongoRepository<RankedSession, String> {
     List<RankedSession> findByUserId(String userId);
+
+    boolean existsByIdAndUserId(String id, String userId);
 }
 
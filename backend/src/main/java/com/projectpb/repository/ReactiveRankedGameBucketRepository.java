@@ -0,0 +1,17 @@
+package com.projectpb.repository;
+
+import com.projectpb.model.RankedGameBucket;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+// Non-blocking counterpart of RankedGameBucketRepository, used to stream large histories
+@Repository
+public interface ReactiveRankedGameBucketRepository extends ReactiveMongoRepository<RankedGameBucket, String> {
+    Flux<RankedGameBucket> findByUserIdAndSessionIdOrderBySeqAsc(String userId, String sessionId);
+
+    // Aggregates only, for the stats
+    @Query(value = "{ 'userId': ?0 }", fields = "{ 'games': 0 }", sort = "{ 'sessionId': 1, 'seq': 1 }")
+    Flux<RankedGameBucket> findAggregatesByUserId(String userId);
+}
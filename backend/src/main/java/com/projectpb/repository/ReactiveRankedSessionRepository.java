@@ -0,0 +1,12 @@
+package com.projectpb.repository;
+
+import com.projectpb.model.RankedSession;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+// Non-blocking counterpart of RankedSessionRepository, used to stream large histories
+@Repository
+public interface ReactiveRankedSessionRepository extends ReactiveMongoRepository<RankedSession, String> {
+    Flux<RankedSession> findByUserId(String userId);
+}
@@ -0,0 +1,12 @@
+package com.projectpb.repository;
+
+import com.projectpb.model.TrainingSession;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+// Non-blocking counterpart of TrainingSessionRepository, used to stream large histories
+@Repository
+public interface ReactiveTrainingSessionRepository extends ReactiveMongoRepository<TrainingSession, String> {
+    Flux<TrainingSession> findByUserId(String userId);
+}
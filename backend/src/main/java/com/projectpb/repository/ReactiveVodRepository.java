@@ -0,0 +1,12 @@
+package com.projectpb.repository;
+
+import com.projectpb.model.Vod;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+// Non-blocking counterpart of VodRepository, used to stream large histories
+@Repository
+public interface ReactiveVodRepository extends ReactiveMongoRepository<Vod, String> {
+    Flux<Vod> findByUserId(String userId);
+}
@@ -0,0 +1,12 @@
+package com.projectpb.repository;
+
+import com.projectpb.model.SessionMonthSummary;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SessionMonthSummaryRepository extends MongoRepository<SessionMonthSummary, String> {
+    List<SessionMonthSummary> findByUserIdAndTypeOrderByMonthAsc(String userId, String type);
+}
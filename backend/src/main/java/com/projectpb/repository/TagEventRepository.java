@@ -0,0 +1,16 @@
+package com.projectpb.repository;
+
+import com.projectpb.model.TagEventRecord;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface TagEventRepository extends MongoRepository<TagEventRecord, String> {
+    @Query(value = "{ 'gameId': ?0, 'timestamp': { $gte: ?1, $lte: ?2 } }", sort = "{ 'timestamp': 1 }")
+    List<TagEventRecord> findReplay(String gameId, Instant from, Instant to, Pageable pageable);
+}
@@ -0,0 +1,19 @@
+package com.projectpb.repository;
+
+import com.projectpb.model.VodComment;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface VodCommentRepository extends MongoRepository<VodComment, String> {
+    @Query(value = "{ 'vodId': ?0, 'timestampSeconds': { $gte: ?1, $lte: ?2 } }", sort = "{ 'timestampSeconds': 1, 'createdAt': 1 }")
+    List<VodComment> findTimeline(String vodId, int from, int to, Pageable pageable);
+
+    long countByVodId(String vodId);
+
+    void deleteByVodId(String vodId);
+}
@@ -1,6 +1,9 @@
 package com.projectpb.security.jwt;
 
 import com.projectpb.security.services.UserDetailsServiceImpl;
+import com.projectpb.service.RequestTiming;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -25,18 +28,29 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
             throws ServletException, IOException {
+        // Only the authentication itself is timed, not the rest of the chain
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "anonymous";
         try {
             String jwt = parseJwt(request);
             if (jwt != null) {
-                if (jwtUtils.validateJwtToken(jwt)) {
-                    String username = jwtUtils.getUserNameFromJwtToken(jwt);
-
+                outcome = "rejected";
+                long started = RequestTiming.now();
+                boolean valid = jwtUtils.validateJwtToken(jwt);
+                String username = valid ? jwtUtils.getUserNameFromJwtToken(jwt) : null;
+                RequestTiming.record(RequestTiming.Phase.AUTH, started);
+                if (valid) {
+                    started = RequestTiming.now();
                     UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                    RequestTiming.record(RequestTiming.Phase.USER, started);
                     UsernamePasswordAuthenticationToken authentication =
                             new UsernamePasswordAuthenticationToken(
                                     userDetails,
@@ -45,6 +59,7 @@ public class AuthTokenFilter extends OncePerRequestFilter {
                     authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                     SecurityContextHolder.getContext().setAuthentication(authentication);
+                    outcome = "authenticated";
                 } else {
                     logger.warn("JWT Token validation failed");
                 }
@@ -52,8 +67,10 @@ public class AuthTokenFilter extends OncePerRequestFilter {
                 logger.debug("No JWT Token found in request to {}", request.getRequestURI());
             }
         } catch (Exception e) {
+            outcome = "error";
             logger.error("Cannot set user authentication: {}", e);
         }
+        sample.stop(meterRegistry.timer("projectpb.auth.filter", "outcome", outcome));
 
         filterChain.doFilter(request, response);
     }
@@ -0,0 +1,476 @@
+package com.projectpb.service;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.model.CreateCollectionOptions;
+import com.projectpb.model.*;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.CompoundIndexDefinition;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.function.Function;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Cold tier of the session history. A nightly rollup moves ranked sessions (with their game buckets) and training sessions
+ * older than {@code olderThanDays} to {@code *_archive} collections compressed with zstd, and rebuilds the monthly summaries
+ * of the months it touched, so the hot collections and their indexes only hold recent sessions.
+ * Lists only read the hot collections: archived sessions are read by id, page by page, or through the monthly summaries.
+ * A write to an archived session first restores it to the hot collections.
+ * Every step can be repeated: documents are copied (replaced by id) before being removed, and summaries are recomputed
+ * from the archive rather than incremented.
+ */
+@Service
+public class HistoryArchiveService {
+    private static final Logger logger = LoggerFactory.getLogger(HistoryArchiveService.class);
+
+    public static final String ARCHIVE_SUFFIX = "_archive";
+
+    private static final String LOCKS = "job_locks";
+    private static final String LOCK_ID = "history-rollup";
+    private static final int NAMESPACE_EXISTS = 48;
+    private static final String MONTH_PATTERN = "^\\d{4}-\\d{2}"; // ISO dates: "2024-03-01" or "2024-03-01T18:22:05.123Z"
+
+    private final MongoTemplate mongoTemplate;
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final boolean enabled;
+    private final int olderThanDays;
+    private final int batchSize;
+    private final int maxPerRun;
+    private final Duration lockDuration;
+    private final String owner = UUID.randomUUID().toString();
+
+    private final Counter archivedRanked;
+    private final Counter archivedTraining;
+
+    public HistoryArchiveService(MongoTemplate mongoTemplate,
+                                 ReactiveMongoTemplate reactiveMongoTemplate,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${projectpb.archive.enabled:true}") boolean enabled,
+                                 @Value("${projectpb.archive.olderThanDays:365}") int olderThanDays,
+                                 @Value("${projectpb.archive.batchSize:500}") int batchSize,
+                                 @Value("${projectpb.archive.maxPerRun:100000}") int maxPerRun,
+                                 @Value("${projectpb.archive.lockMinutes:60}") long lockMinutes) {
+        this.mongoTemplate = mongoTemplate;
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.enabled = enabled;
+        this.olderThanDays = olderThanDays;
+        this.batchSize = batchSize;
+        this.maxPerRun = maxPerRun;
+        this.lockDuration = Duration.ofMinutes(lockMinutes);
+        this.archivedRanked = Counter.builder("projectpb.archive.sessions").tag("type", SessionMonthSummary.RANKED).register(meterRegistry);
+        this.archivedTraining = Counter.builder("projectpb.archive.sessions").tag("type", SessionMonthSummary.TRAINING).register(meterRegistry);
+    }
+
+    public String archiveCollection(Class<?> type) {
+        return mongoTemplate.getCollectionName(type) + ARCHIVE_SUFFIX;
+    }
+
+    /**
+     * Create the archive collections (zstd block compression instead of the default snappy) and their indexes.
+     */
+    public void ensureCollections() {
+        for (Class<?> type : List.of(RankedSession.class, RankedGameBucket.class, TrainingSession.class)) {
+            String collection = archiveCollection(type);
+            if (!mongoTemplate.collectionExists(collection)) {
+                try {
+                    mongoTemplate.getDb().createCollection(collection, new CreateCollectionOptions().storageEngineOptions(
+                            new Document("wiredTiger", new Document("configString", "block_compressor=zstd"))));
+                } catch (MongoCommandException e) {
+                    if (e.getErrorCode() != NAMESPACE_EXISTS) {
+                        throw e; // Otherwise created meanwhile by another instance
+                    }
+                }
+            }
+        }
+        // The archive is paged newest first
+        for (Class<?> type : List.of(RankedSession.class, TrainingSession.class)) {
+            mongoTemplate.indexOps(archiveCollection(type)).ensureIndex(
+                    new Index().on("userId", Sort.Direction.ASC).on("date", Sort.Direction.DESC));
+        }
+        mongoTemplate.indexOps(archiveCollection(RankedGameBucket.class)).ensureIndex(
+                new CompoundIndexDefinition(new Document("userId", 1).append("sessionId", 1).append("seq", 1)).named("session_buckets"));
+    }
+
+    @Scheduled(cron = "${projectpb.archive.cron:0 30 4 * * *}")
+    public void rollup() {
+        if (!enabled || !lock()) {
+            return; // Disabled, or another instance is already rolling up
+        }
+        try {
+            String cutoff = LocalDate.now(ZoneOffset.UTC).minusDays(olderThanDays).toString();
+            long start = System.nanoTime();
+            int ranked = archiveRanked(cutoff);
+            int training = archiveTraining(cutoff);
+            if (ranked + training > 0) {
+                logger.info("Archived {} ranked and {} training sessions dated before {} in {} ms", ranked, training, cutoff,
+                        Duration.ofNanos(System.nanoTime() - start).toMillis());
+            }
+        } catch (Exception e) {
+            logger.warn("History rollup failed, the next run will resume it: {}", e.getMessage());
+        } finally {
+            unlock();
+        }
+    }
+
+    // Per batch: copy to the archive, remove from the hot collections, then rebuild the summaries from the archive.
+    // Stopping before the sessions are removed leaves them in the hot collections, and the next run starts the batch over;
+    // stopping right after leaves hot copies of their buckets, which no read reaches without the hot session.
+    // Sessions saved between the copy and the removal stay hot and are left to the next run.
+    // The lease is renewed before every batch, as a run can outlast it.
+    private int archiveRanked(String cutoff) {
+        int archived = 0;
+        Set<String> skipped = new HashSet<>();
+        while (archived < maxPerRun && renew()) {
+            List<RankedSession> sessions = mongoTemplate.find(olderThan(cutoff, skipped).limit(batchSize), RankedSession.class);
+            if (sessions.isEmpty()) {
+                break;
+            }
+            List<String> ids = sessions.stream().map(RankedSession::getId).toList();
+            Set<String> userIds = new HashSet<>();
+            sessions.forEach(session -> userIds.add(session.getUserId()));
+            List<RankedGameBucket> buckets = mongoTemplate.find(
+                    query(where("userId").in(userIds).and("sessionId").in(ids)), RankedGameBucket.class);
+
+            copy(buckets, RankedGameBucket::getId, archiveCollection(RankedGameBucket.class));
+            copy(sessions, RankedSession::getId, archiveCollection(RankedSession.class));
+            Set<String> changed = removeUnchanged(sessions, RankedSession::getId, RankedSession::getUpdatedAt, RankedSession.class);
+            if (!changed.isEmpty()) {
+                mongoTemplate.remove(query(where("userId").in(userIds).and("sessionId").in(changed)), archiveCollection(RankedGameBucket.class));
+                skipped.addAll(changed);
+            }
+            List<String> removed = ids.stream().filter(id -> !changed.contains(id)).toList();
+            removeBuckets(userIds, removed, buckets.stream().filter(bucket -> !changed.contains(bucket.getSessionId())).toList());
+            months(sessions, RankedSession::getUserId, RankedSession::getGameId, RankedSession::getDate).forEach(this::summarizeRanked);
+
+            archived += removed.size();
+            archivedRanked.increment(removed.size());
+        }
+        return archived;
+    }
+
+    private int archiveTraining(String cutoff) {
+        int archived = 0;
+        Set<String> skipped = new HashSet<>();
+        while (archived < maxPerRun && renew()) {
+            List<TrainingSession> sessions = mongoTemplate.find(olderThan(cutoff, skipped).limit(batchSize), TrainingSession.class);
+            if (sessions.isEmpty()) {
+                break;
+            }
+            copy(sessions, TrainingSession::getId, archiveCollection(TrainingSession.class));
+            Set<String> changed = removeUnchanged(sessions, TrainingSession::getId, TrainingSession::getUpdatedAt, TrainingSession.class);
+            skipped.addAll(changed);
+            months(sessions, TrainingSession::getUserId, TrainingSession::getGameId, TrainingSession::getDate).forEach(this::summarizeTraining);
+
+            archived += sessions.size() - changed.size();
+            archivedTraining.increment(sessions.size() - changed.size());
+        }
+        return archived;
+    }
+
+    // Removes the copied version of each session only. A session saved since it was read stays hot and its archived
+    // copy is dropped; returns the ids of those sessions.
+    private <T> Set<String> removeUnchanged(List<T> sessions, Function<T, String> id, Function<T, Instant> updatedAt, Class<T> type) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, type);
+        sessions.forEach(session -> bulk.remove(query(where("_id").is(id.apply(session)).and("updatedAt").is(updatedAt.apply(session)))));
+        bulk.execute();
+
+        Query remaining = query(where("_id").in(sessions.stream().map(id).toList()));
+        remaining.fields().include("_id");
+        Set<String> changed = new HashSet<>();
+        mongoTemplate.find(remaining, Document.class, mongoTemplate.getCollectionName(type))
+                .forEach(session -> changed.add(session.get("_id").toString()));
+        if (!changed.isEmpty()) {
+            mongoTemplate.remove(query(where("_id").in(changed)), archiveCollection(type));
+        }
+        return changed;
+    }
+
+    // Only the copied version of a bucket is removed. A game appended meanwhile (to a copied bucket or to a new one)
+    // leaves its bucket in the hot collection: it is copied again and removed on the next pass.
+    private void removeBuckets(Set<String> userIds, List<String> sessionIds, List<RankedGameBucket> copied) {
+        List<RankedGameBucket> pending = copied;
+        while (!pending.isEmpty()) {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, RankedGameBucket.class);
+            pending.forEach(bucket -> bulk.remove(query(where("_id").is(bucket.getId()).and("count").is(bucket.getCount()))));
+            bulk.execute();
+            pending = mongoTemplate.find(query(where("userId").in(userIds).and("sessionId").in(sessionIds)), RankedGameBucket.class);
+            copy(pending, RankedGameBucket::getId, archiveCollection(RankedGameBucket.class));
+        }
+    }
+
+    private static <T> Set<MonthKey> months(List<T> sessions, Function<T, String> userId, Function<T, String> gameId, Function<T, String> date) {
+        Set<MonthKey> months = new HashSet<>();
+        for (T session : sessions) {
+            months.add(MonthKey.of(userId.apply(session), gameId.apply(session), date.apply(session)));
+        }
+        return months;
+    }
+
+    // Sessions dated before the cutoff, except those skipped earlier in the run; sessions without an ISO date are never archived
+    private static Query olderThan(String cutoff, Set<String> skipped) {
+        Query older = new Query(new Criteria().andOperator(where("date").lt(cutoff), where("date").regex(MONTH_PATTERN)));
+        if (!skipped.isEmpty()) {
+            older.addCriteria(where("_id").nin(skipped));
+        }
+        return older;
+    }
+
+    // Replace by id rather than insert, so a batch interrupted before its removal can be copied again
+    private <T> void copy(List<T> documents, Function<T, String> id, String collection) {
+        if (documents.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, collection);
+        for (T document : documents) {
+            Document mapped = new Document();
+            mongoTemplate.getConverter().write(document, mapped);
+            bulk.replaceOne(query(where("_id").is(id.apply(document))), mapped, FindAndReplaceOptions.options().upsert());
+        }
+        bulk.execute();
+    }
+
+    private void summarizeRanked(MonthKey key) {
+        Query sessions = monthQuery(key);
+        sessions.fields().include("_id");
+        List<String> ids = mongoTemplate.find(sessions, Document.class, archiveCollection(RankedSession.class)).stream()
+                .map(session -> session.get("_id").toString())
+                .toList();
+        if (ids.isEmpty()) {
+            mongoTemplate.remove(query(where("_id").is(key.summaryId(SessionMonthSummary.RANKED))), SessionMonthSummary.class);
+            return;
+        }
+        Query aggregates = query(where("userId").is(key.userId()).and("sessionId").in(ids));
+        aggregates.fields().exclude("games");
+
+        SessionMonthSummary summary = key.summary(SessionMonthSummary.RANKED);
+        summary.setSessions(ids.size());
+        for (RankedGameBucket bucket : mongoTemplate.find(aggregates, RankedGameBucket.class, archiveCollection(RankedGameBucket.class))) {
+            summary.setGames(summary.getGames() + bucket.getCount());
+            summary.setWins(summary.getWins() + bucket.getWins());
+            summary.setLosses(summary.getLosses() + bucket.getLosses());
+            summary.setRemakes(summary.getRemakes() + bucket.getRemakes());
+            summary.setLpChange(summary.getLpChange() + bucket.getLpChange());
+            summary.setKills(summary.getKills() + bucket.getKills());
+            summary.setDeaths(summary.getDeaths() + bucket.getDeaths());
+            summary.setAssists(summary.getAssists() + bucket.getAssists());
+        }
+        mongoTemplate.save(summary);
+    }
+
+    private void summarizeTraining(MonthKey key) {
+        Query sessions = monthQuery(key);
+        sessions.fields().include("status", "tags");
+        List<TrainingSession> archived = mongoTemplate.find(sessions, TrainingSession.class, archiveCollection(TrainingSession.class));
+        if (archived.isEmpty()) {
+            mongoTemplate.remove(query(where("_id").is(key.summaryId(SessionMonthSummary.TRAINING))), SessionMonthSummary.class);
+            return;
+        }
+        SessionMonthSummary summary = key.summary(SessionMonthSummary.TRAINING);
+        summary.setSessions(archived.size());
+        Map<String, Integer> tags = new TreeMap<>();
+        for (TrainingSession session : archived) {
+            if ("COMPLETED".equals(session.getStatus())) {
+                summary.setCompleted(summary.getCompleted() + 1);
+            } else if ("ABORTED".equals(session.getStatus())) {
+                summary.setAborted(summary.getAborted() + 1);
+            }
+            if (session.getTags() != null) {
+                session.getTags().forEach(tag -> tags.merge(tag, 1, Integer::sum));
+            }
+        }
+        summary.setTags(tags);
+        mongoTemplate.save(summary);
+    }
+
+    private static Query monthQuery(MonthKey key) {
+        return query(where("userId").is(key.userId()).and("gameId").is(key.gameId()).and("date").regex("^" + key.month()));
+    }
+
+    /**
+     * A page of the archived ranked sessions of a user, newest first, with their games; {@code gameId} may be null.
+     */
+    public List<RankedSession> rankedSessions(String userId, String gameId, int page, int size) {
+        Criteria archived = where("userId").is(userId);
+        if (gameId != null) {
+            archived.and("gameId").is(gameId);
+        }
+        List<RankedSession> sessions = mongoTemplate.find(archivePage(archived, page, size), RankedSession.class,
+                archiveCollection(RankedSession.class));
+        if (sessions.isEmpty()) {
+            return sessions;
+        }
+        Map<String, List<Game>> games = new HashMap<>();
+        Query buckets = query(where("userId").is(userId).and("sessionId").in(sessions.stream().map(RankedSession::getId).toList()))
+                .with(Sort.by("sessionId", "seq"));
+        for (RankedGameBucket bucket : mongoTemplate.find(buckets, RankedGameBucket.class, archiveCollection(RankedGameBucket.class))) {
+            games.computeIfAbsent(bucket.getSessionId(), id -> new ArrayList<>()).addAll(bucket.getGames());
+        }
+        sessions.forEach(session -> session.setGames(games.getOrDefault(session.getId(), new ArrayList<>())));
+        return sessions;
+    }
+
+    public Optional<RankedSession> rankedSession(String userId, String id) {
+        RankedSession session = mongoTemplate.findOne(query(where("_id").is(id).and("userId").is(userId)), RankedSession.class,
+                archiveCollection(RankedSession.class));
+        if (session != null) {
+            session.setGames(archivedBuckets(userId, id).stream().flatMap(bucket -> bucket.getGames().stream()).toList());
+        }
+        return Optional.ofNullable(session);
+    }
+
+    // gameId and workoutId may be null
+    public List<TrainingSession> trainingSessions(String userId, String gameId, String workoutId, int page, int size) {
+        Criteria archived = where("userId").is(userId);
+        if (gameId != null) {
+            archived.and("gameId").is(gameId);
+        }
+        if (workoutId != null) {
+            archived.and("workoutId").is(workoutId);
+        }
+        return mongoTemplate.find(archivePage(archived, page, size), TrainingSession.class, archiveCollection(TrainingSession.class));
+    }
+
+    private static Query archivePage(Criteria criteria, int page, int size) {
+        return query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "date"))
+                .skip((long) page * size)
+                .limit(size);
+    }
+
+    public Optional<TrainingSession> trainingSession(String userId, String id) {
+        return Optional.ofNullable(mongoTemplate.findOne(query(where("_id").is(id).and("userId").is(userId)), TrainingSession.class,
+                archiveCollection(TrainingSession.class)));
+    }
+
+    private List<RankedGameBucket> archivedBuckets(String userId, String sessionId) {
+        return mongoTemplate.find(query(where("userId").is(userId).and("sessionId").is(sessionId)).with(Sort.by("seq")),
+                RankedGameBucket.class, archiveCollection(RankedGameBucket.class));
+    }
+
+    /**
+     * The games of an archived ranked session in order, for the streaming endpoint.
+     */
+    public Flux<Game> streamRankedGames(String userId, String sessionId) {
+        return reactiveMongoTemplate.find(query(where("userId").is(userId).and("sessionId").is(sessionId)).with(Sort.by("seq")),
+                        RankedGameBucket.class, archiveCollection(RankedGameBucket.class))
+                .concatMapIterable(RankedGameBucket::getGames);
+    }
+
+    /**
+     * Move an archived ranked session and its buckets back to the hot collections, before it is modified.
+     * Returns false when the user has no such archived session.
+     */
+    public boolean restoreRankedSession(String userId, String id) {
+        Optional<RankedSession> session = rankedSession(userId, id);
+        if (session.isEmpty()) {
+            return false;
+        }
+        List<RankedGameBucket> buckets = archivedBuckets(userId, id);
+        copy(buckets, RankedGameBucket::getId, mongoTemplate.getCollectionName(RankedGameBucket.class));
+        copy(List.of(session.get()), RankedSession::getId, mongoTemplate.getCollectionName(RankedSession.class));
+        removeArchivedRankedSession(userId, id);
+        summarizeRanked(MonthKey.of(session.get().getUserId(), session.get().getGameId(), session.get().getDate()));
+        return true;
+    }
+
+    public boolean restoreTrainingSession(String userId, String id) {
+        Optional<TrainingSession> session = trainingSession(userId, id);
+        if (session.isEmpty()) {
+            return false;
+        }
+        copy(List.of(session.get()), TrainingSession::getId, mongoTemplate.getCollectionName(TrainingSession.class));
+        mongoTemplate.remove(query(where("_id").is(id)), archiveCollection(TrainingSession.class));
+        summarizeTraining(MonthKey.of(session.get().getUserId(), session.get().getGameId(), session.get().getDate()));
+        return true;
+    }
+
+    public Optional<RankedSession> deleteRankedSession(String userId, String id) {
+        Optional<RankedSession> session = rankedSession(userId, id);
+        session.ifPresent(deleted -> {
+            removeArchivedRankedSession(userId, id);
+            summarizeRanked(MonthKey.of(userId, deleted.getGameId(), deleted.getDate()));
+        });
+        return session;
+    }
+
+    public Optional<TrainingSession> deleteTrainingSession(String userId, String id) {
+        Optional<TrainingSession> session = trainingSession(userId, id);
+        session.ifPresent(deleted -> {
+            mongoTemplate.remove(query(where("_id").is(id)), archiveCollection(TrainingSession.class));
+            summarizeTraining(MonthKey.of(userId, deleted.getGameId(), deleted.getDate()));
+        });
+        return session;
+    }
+
+    private void removeArchivedRankedSession(String userId, String id) {
+        mongoTemplate.remove(query(where("userId").is(userId).and("sessionId").is(id)), archiveCollection(RankedGameBucket.class));
+        mongoTemplate.remove(query(where("_id").is(id)), archiveCollection(RankedSession.class));
+    }
+
+    // A lease in Mongo, so only one instance rolls up at a time; it expires if its owner dies
+    private boolean lock() {
+        Instant now = Instant.now();
+        try {
+            mongoTemplate.upsert(query(where("_id").is(LOCK_ID).and("until").lt(now)),
+                    new Update().set("owner", owner).set("until", now.plus(lockDuration)), LOCKS);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    // False when the lease expired and another instance took it over
+    private boolean renew() {
+        return mongoTemplate.updateFirst(query(where("_id").is(LOCK_ID).and("owner").is(owner)),
+                new Update().set("until", Instant.now().plus(lockDuration)), LOCKS).getMatchedCount() > 0;
+    }
+
+    private void unlock() {
+        mongoTemplate.remove(query(where("_id").is(LOCK_ID).and("owner").is(owner)), LOCKS);
+    }
+
+    private record MonthKey(String userId, String gameId, String month) {
+        static MonthKey of(String userId, String gameId, String date) {
+            return new MonthKey(userId, gameId, date.substring(0, 7)); // yyyy-MM
+        }
+
+        String summaryId(String type) {
+            return SessionMonthSummary.id(userId, type, gameId, month);
+        }
+
+        SessionMonthSummary summary(String type) {
+            SessionMonthSummary summary = new SessionMonthSummary();
+            summary.setId(summaryId(type));
+            summary.setUserId(userId);
+            summary.setType(type);
+            summary.setGameId(gameId);
+            summary.setMonth(month);
+            summary.setUpdatedAt(Instant.now());
+            return summary;
+        }
+    }
+}
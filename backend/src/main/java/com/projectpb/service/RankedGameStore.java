@@ -0,0 +1,195 @@
+package com.projectpb.service;
+
+import com.projectpb.model.Game;
+import com.projectpb.model.GameResult;
+import com.projectpb.model.RankedGameBucket;
+import com.projectpb.model.RankedSession;
+import com.projectpb.repository.RankedGameBucketRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Games of the ranked sessions, stored in fixed-size buckets (bucket pattern) instead of a list embedded in the session,
+ * so a session document stays small and adding a game only touches the last bucket of the session.
+ */
+@Service
+public class RankedGameStore {
+
+    private final RankedGameBucketRepository repository;
+    private final MongoTemplate mongoTemplate;
+    private final int bucketSize;
+
+    public RankedGameStore(RankedGameBucketRepository repository,
+                           MongoTemplate mongoTemplate,
+                           @Value("${projectpb.ranked.bucketSize:50}") int bucketSize) {
+        this.repository = repository;
+        this.mongoTemplate = mongoTemplate;
+        this.bucketSize = bucketSize;
+    }
+
+    /**
+     * Append a game to the last bucket of the session, or start the next bucket when it is full.
+     * A single upsert guarded by the bucket's count. The upsert fails on the bucket's id when the bucket is full, or when
+     * another append created it first; the count read back tells them apart, so only a full bucket moves on to the next
+     * one and bucket {@code seq} keeps holding games {@code seq * bucketSize} onwards.
+     */
+    public void append(String userId, String sessionId, Game game) {
+        int seq = lastSeq(userId, sessionId);
+        while (true) {
+            Query tail = query(where("_id").is(RankedGameBucket.id(sessionId, seq)).and("count").lt(bucketSize));
+            Update update = new Update()
+                    .setOnInsert("sessionId", sessionId)
+                    .setOnInsert("userId", userId)
+                    .setOnInsert("seq", seq)
+                    .push("games", game)
+                    .inc("count", 1)
+                    .inc("lpChange", game.getLpChange())
+                    .inc("kills", game.getKills())
+                    .inc("deaths", game.getDeaths())
+                    .inc("assists", game.getAssists());
+            if (game.getResult() == GameResult.WIN) {
+                update.inc("wins", 1);
+            } else if (game.getResult() == GameResult.LOSS) {
+                update.inc("losses", 1);
+            } else if (game.getResult() == GameResult.REMAKE) {
+                update.inc("remakes", 1);
+            }
+            if (game.getTimestamp() != null) {
+                update.min("firstTimestamp", game.getTimestamp()).max("lastTimestamp", game.getTimestamp());
+            }
+            try {
+                mongoTemplate.upsert(tail, update, RankedGameBucket.class);
+                return;
+            } catch (DuplicateKeyException e) {
+                if (count(sessionId, seq) >= bucketSize) {
+                    seq++;
+                }
+            }
+        }
+    }
+
+    private int count(String sessionId, int seq) {
+        Query bucket = query(where("_id").is(RankedGameBucket.id(sessionId, seq)));
+        bucket.fields().include("count");
+        RankedGameBucket found = mongoTemplate.findOne(bucket, RankedGameBucket.class);
+        return found != null ? found.getCount() : 0;
+    }
+
+    private int lastSeq(String userId, String sessionId) {
+        Query last = query(where("userId").is(userId).and("sessionId").is(sessionId))
+                .with(Sort.by(Sort.Direction.DESC, "seq"))
+                .limit(1);
+        last.fields().include("seq");
+        RankedGameBucket bucket = mongoTemplate.findOne(last, RankedGameBucket.class);
+        return bucket != null ? bucket.getSeq() : 0;
+    }
+
+    /**
+     * Replace the games of a session. Only the buckets whose games changed are written, so saving a session with one
+     * more game rewrites its last bucket alone. Each write is conditional on the count read for the bucket, so a game
+     * appended meanwhile is never overwritten, and returns false when one was. Buckets are written from the last one
+     * down: appends only reach the last bucket or start the next one, so the conflict is met before anything is written.
+     */
+    public boolean replace(String userId, String sessionId, List<Game> games) {
+        Map<Integer, RankedGameBucket> existing = new HashMap<>();
+        repository.findByUserIdAndSessionIdOrderBySeqAsc(userId, sessionId).forEach(bucket -> existing.put(bucket.getSeq(), bucket));
+        List<RankedGameBucket> buckets = buckets(userId, sessionId, games);
+        // Buckets beyond the new games
+        List<RankedGameBucket> stale = existing.values().stream()
+                .filter(bucket -> bucket.getSeq() >= buckets.size())
+                .sorted(Comparator.comparingInt(RankedGameBucket::getSeq).reversed())
+                .toList();
+        for (RankedGameBucket bucket : stale) {
+            Query unchanged = query(where("_id").is(bucket.getId()).and("count").is(bucket.getCount()));
+            if (mongoTemplate.remove(unchanged, RankedGameBucket.class).getDeletedCount() == 0) {
+                return false;
+            }
+        }
+        for (RankedGameBucket bucket : buckets.reversed()) {
+            RankedGameBucket current = existing.get(bucket.getSeq());
+            if (current != null && Objects.equals(current.getGames(), bucket.getGames())) {
+                continue;
+            }
+            if (!write(current, bucket)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean write(RankedGameBucket current, RankedGameBucket bucket) {
+        if (current == null) {
+            try {
+                mongoTemplate.insert(bucket);
+                return true;
+            } catch (DuplicateKeyException e) {
+                return false;
+            }
+        }
+        Query unchanged = query(where("_id").is(current.getId()).and("count").is(current.getCount()));
+        return mongoTemplate.findAndReplace(unchanged, bucket) != null;
+    }
+
+    /**
+     * Split games into the buckets of a session, in order.
+     */
+    public List<RankedGameBucket> buckets(String userId, String sessionId, List<Game> games) {
+        List<RankedGameBucket> buckets = new ArrayList<>();
+        for (int from = 0; from < games.size(); from += bucketSize) {
+            buckets.add(RankedGameBucket.of(sessionId, userId, from / bucketSize,
+                    games.subList(from, Math.min(from + bucketSize, games.size()))));
+        }
+        return buckets;
+    }
+
+    /**
+     * The games of a session, read bucket by bucket from a cursor.
+     */
+    public List<Game> games(String userId, String sessionId) {
+        List<Game> games = new ArrayList<>();
+        try (Stream<RankedGameBucket> buckets = repository.streamByUserIdAndSessionIdOrderBySeqAsc(userId, sessionId)) {
+            buckets.forEach(bucket -> addGames(games, bucket));
+        }
+        return games;
+    }
+
+    /**
+     * Fill in the games of sessions of one user, reading all of their buckets with a single query.
+     */
+    public List<RankedSession> withGames(String userId, List<RankedSession> sessions) {
+        Map<String, List<Game>> games = new HashMap<>();
+        try (Stream<RankedGameBucket> buckets = repository.streamByUserIdOrderBySessionIdAscSeqAsc(userId)) {
+            buckets.forEach(bucket -> addGames(games.computeIfAbsent(bucket.getSessionId(), id -> new ArrayList<>()), bucket));
+        }
+        for (RankedSession session : sessions) {
+            session.setGames(games.getOrDefault(session.getId(), new ArrayList<>()));
+        }
+        return sessions;
+    }
+
+    public void delete(String userId, String sessionId) {
+        repository.deleteByUserIdAndSessionId(userId, sessionId);
+    }
+
+    private static void addGames(List<Game> games, RankedGameBucket bucket) {
+        if (bucket.getGames() != null) {
+            games.addAll(bucket.getGames());
+        }
+    }
+}
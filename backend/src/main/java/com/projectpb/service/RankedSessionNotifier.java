@@ -0,0 +1,72 @@
+package com.projectpb.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projectpb.model.Game;
+import com.projectpb.model.RankedSession;
+import com.projectpb.websocket.RankedSessionDelta;
+import com.projectpb.websocket.RealtimeEnvelope;
+import com.projectpb.websocket.TopicBroadcaster;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Pushes ranked session changes to the owner's {@code /user/queue/ranked} on every instance,
+ * so open dashboards receive only the changed fields instead of polling the whole session.
+ */
+@Service
+@RequiredArgsConstructor
+public class RankedSessionNotifier {
+    private static final String QUEUE = "ranked";
+    private static final String EVENT_TYPE = "RANKED";
+
+    private final RealtimeService realtimeService;
+    private final TopicBroadcaster broadcaster;
+    private final ObjectMapper objectMapper;
+
+    public void created(String username, RankedSession session) {
+        send(username, session.getUserId(), new RankedSessionDelta("CREATED", session.getId(), changedFields(null, session)));
+    }
+
+    public void updated(String username, RankedSession before, RankedSession after) {
+        Map<String, Object> changes = changedFields(before, after);
+        if (!changes.isEmpty()) {
+            send(username, after.getUserId(), new RankedSessionDelta("UPDATED", after.getId(), changes));
+        }
+    }
+
+    public void deleted(String username, RankedSession session) {
+        send(username, session.getUserId(), new RankedSessionDelta("DELETED", session.getId(), null));
+    }
+
+    public void gameAdded(String username, String userId, String sessionId, Game game) {
+        send(username, userId, new RankedSessionDelta("GAME_ADDED", sessionId, Map.of("game", game)));
+    }
+
+    private void send(String username, String userId, RankedSessionDelta delta) {
+        RealtimeEnvelope event = realtimeService.createEvent(EVENT_TYPE, null, userId, null, delta);
+        broadcaster.sendToUser(username, "/queue/" + QUEUE, event);
+        realtimeService.publishUserEvent(QUEUE, username, event);
+    }
+
+    private Map<String, Object> changedFields(RankedSession before, RankedSession after) {
+        JsonNode previous = before != null ? objectMapper.valueToTree(before) : null;
+        JsonNode current = objectMapper.valueToTree(after);
+
+        Map<String, Object> changes = new LinkedHashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = current.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            JsonNode old = previous != null ? previous.get(field.getKey()) : null;
+            if (!Objects.equals(old, field.getValue()) && !(old == null && field.getValue().isNull())) {
+                changes.put(field.getKey(), field.getValue());
+            }
+        }
+        return changes;
+    }
+}
@@ -1,26 +1,202 @@
 package com.projectpb.service;
 
-import lombok.RequiredArgsConstructor;
+import com.projectpb.websocket.RealtimeCodec;
+import com.projectpb.websocket.RealtimeEnvelope;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes realtime events to Redis for the other instances.
+ * Publishing never blocks the caller: events go to a bounded queue drained by a background publisher
+ * that sends whole batches of PUBLISH commands in one pipelined round-trip. A circuit breaker stops
+ * talking to Redis after repeated failures; meanwhile events are shed (and counted) rather than queued.
+ */
 @Service
-@RequiredArgsConstructor
 public class RealtimeService {
+    private static final Logger logger = LoggerFactory.getLogger(RealtimeService.class);
+
+    public static final String GAME_CHANNEL_PREFIX = "game:";
+    public static final String USER_CHANNEL_PREFIX = "user:"; // user:{queue}:{username}
+    public static final String STATS_CHANNEL_PREFIX = "stats:";
+    public static final String CACHE_CHANNEL_PREFIX = "cache:"; // cache:{collection}
 
     private final StringRedisTemplate redisTemplate;
+    private final RealtimeCodec codec;
+
+    // Identifies this instance on the shared channels so it can ignore its own events
+    @Getter
+    private final String nodeId;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final BlockingQueue<PendingPublish> queue;
+    private final int batchSize;
+    private final CircuitBreaker circuitBreaker;
+
+    private final DistributionSummary batchSizes;
+    private final Counter droppedQueueFull;
+    private final Counter droppedCircuitOpen;
+    private final Counter droppedRedisError;
+
+    private volatile boolean running;
+    private Thread publisherThread;
+
+    public RealtimeService(StringRedisTemplate redisTemplate,
+                           RealtimeCodec codec,
+                           MeterRegistry meterRegistry,
+                           @Value("${projectpb.realtime.nodeId:}") String nodeId,
+                           @Value("${projectpb.realtime.publish.queueCapacity:10000}") int queueCapacity,
+                           @Value("${projectpb.realtime.publish.batchSize:256}") int batchSize,
+                           @Value("${projectpb.realtime.publish.failureThreshold:5}") int failureThreshold,
+                           @Value("${projectpb.realtime.publish.openMs:5000}") long openMs) {
+        this.redisTemplate = redisTemplate;
+        this.codec = codec;
+        this.nodeId = StringUtils.hasText(nodeId) ? nodeId : UUID.randomUUID().toString();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openMs);
+
+        this.batchSizes = DistributionSummary.builder("projectpb.realtime.publish.batch").register(meterRegistry);
+        this.droppedQueueFull = droppedCounter(meterRegistry, "queue_full");
+        this.droppedCircuitOpen = droppedCounter(meterRegistry, "circuit_open");
+        this.droppedRedisError = droppedCounter(meterRegistry, "redis_error");
+        Gauge.builder("projectpb.realtime.publish.queue", queue, BlockingQueue::size).register(meterRegistry);
+        Gauge.builder("projectpb.realtime.publish.circuit", circuitBreaker, breaker -> breaker.state().ordinal())
+                .description("0 = closed, 1 = open, 2 = half-open")
+                .register(meterRegistry);
+    }
+
+    private static Counter droppedCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("projectpb.realtime.publish.dropped").tag("reason", reason).register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        publisherThread = new Thread(this::publishLoop, "realtime-publisher");
+        publisherThread.setDaemon(true);
+        publisherThread.start();
+    }
 
     /**
-     * Publish an event to a specific game topic in Redis.
-     * This allows other instances (or this one) to pick it up and broadcast via WebSockets.
+     * Build an event originating from this instance, stamped with the next sequence number.
      */
-    public void publishGameEvent(String gameId, String eventType, String payload) {
-        String channel = "game:" + gameId; // Redis Channel
-        String message = eventType + "|" + payload; // Simple protocol: TYPE|PAYLOAD
-        redisTemplate.convertAndSend(channel, message);
+    public RealtimeEnvelope createEvent(String type, String gameId, String userId, Long timestamp, Object data) {
+        long ts = timestamp != null ? timestamp : System.currentTimeMillis();
+        return new RealtimeEnvelope(RealtimeEnvelope.CURRENT_VERSION, type, gameId, userId, ts,
+                sequence.incrementAndGet(), nodeId, data);
     }
 
-    // Note: Subscription logic usually goes in a separate RedisMessageListenerContainer config
-    // For this prototype, we'll assume single-instance for now but keep the publisher ready.
-}
+    /**
+     * Publish an event to its game channel in Redis.
+     * Other instances pick it up through the GameEventRelay and broadcast it to their own WebSocket clients.
+     */
+    public void publishGameEvent(RealtimeEnvelope event) {
+        enqueue(GAME_CHANNEL_PREFIX + event.gameId(), event);
+    }
+
+    /**
+     * Publish an event meant for one user's {@code /user/queue/{queue}} destination on every instance.
+     */
+    public void publishUserEvent(String queue, String username, RealtimeEnvelope event) {
+        enqueue(USER_CHANNEL_PREFIX + queue + ":" + username, event);
+    }
+
+    /**
+     * Share this instance's tag rate snapshot of a game with the other instances.
+     */
+    public void publishStatsEvent(RealtimeEnvelope event) {
+        enqueue(STATS_CHANNEL_PREFIX + event.gameId(), event);
+    }
+
+    /**
+     * Tell the other instances that a user's collection changed, so they drop their cached responses of it.
+     */
+    public void publishCacheEvent(String collection, RealtimeEnvelope event) {
+        enqueue(CACHE_CHANNEL_PREFIX + collection, event);
+    }
+
+    private void enqueue(String channel, RealtimeEnvelope event) {
+        if (!queue.offer(new PendingPublish(channel, codec.encode(event)))) {
+            droppedQueueFull.increment();
+        }
+    }
 
+    private void publishLoop() {
+        List<PendingPublish> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingPublish first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                publish(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void publish(List<PendingPublish> batch) {
+        if (!circuitBreaker.allowRequest()) {
+            droppedCircuitOpen.increment(batch.size());
+            return;
+        }
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (PendingPublish pending : batch) {
+                    publish(connection, pending);
+                }
+                return null;
+            });
+            circuitBreaker.onSuccess();
+            batchSizes.record(batch.size());
+        } catch (Exception e) {
+            circuitBreaker.onFailure();
+            droppedRedisError.increment(batch.size());
+            logger.warn("Could not publish {} realtime events to Redis: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    private static void publish(RedisConnection connection, PendingPublish pending) {
+        connection.publish(pending.channel().getBytes(StandardCharsets.UTF_8),
+                pending.message().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        // The loop keeps draining what is already queued before exiting
+        running = false;
+        publisherThread.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private record PendingPublish(String channel, String message) {
+    }
+}
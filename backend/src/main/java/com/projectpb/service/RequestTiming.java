@@ -0,0 +1,152 @@
+package com.projectpb.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Time spent in each phase of one sampled HTTP request, reported by {@code ServerTimingFilter}.
+ * The instrumented code calls {@link #now()} and {@link #record(Phase, long)}: when the current request is not
+ * sampled both return immediately without reading the clock or allocating.
+ * Phases may nest (the user lookup runs a Mongo query) and reads fanned out to other threads add up,
+ * so their sum can exceed the total.
+ */
+public final class RequestTiming {
+
+    public enum Phase {
+        AUTH("auth", "JWT validation"),
+        USER("user", "user lookup"),
+        DB("db", "Mongo commands"),
+        JSON("json", "serialization");
+
+        final String metric;
+        final String description;
+
+        Phase(String metric, String description) {
+            this.metric = metric;
+            this.description = description;
+        }
+
+        public String metric() {
+            return metric;
+        }
+    }
+
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+    private static final Phase[] PHASES = Phase.values();
+
+    private final long startNanos = System.nanoTime();
+    private final AtomicLongArray nanos = new AtomicLongArray(PHASES.length);
+    private final AtomicLongArray counts = new AtomicLongArray(PHASES.length);
+
+    RequestTiming() {
+    }
+
+    /**
+     * Start timing the request of the current thread.
+     */
+    public static RequestTiming begin() {
+        RequestTiming timing = new RequestTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * The timing of the current request, null when it is not sampled.
+     */
+    public static RequestTiming current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Start of a phase: the clock in nanoseconds, or 0 when the current request is not sampled.
+     */
+    public static long now() {
+        return CURRENT.get() != null ? System.nanoTime() : 0;
+    }
+
+    /**
+     * End of a phase started at {@code startedNanos} (from {@link #now()}).
+     */
+    public static void record(Phase phase, long startedNanos) {
+        if (startedNanos != 0) {
+            add(phase, System.nanoTime() - startedNanos);
+        }
+    }
+
+    /**
+     * Add an already measured duration to the current request, if sampled.
+     */
+    public static void add(Phase phase, long elapsedNanos) {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.nanos.addAndGet(phase.ordinal(), elapsedNanos);
+            timing.counts.incrementAndGet(phase.ordinal());
+        }
+    }
+
+    /**
+     * Run {@code task} on another thread on behalf of the request owning {@code timing} (may be null).
+     */
+    public static <T> T supplyWith(RequestTiming timing, Supplier<T> task) {
+        if (timing == null) {
+            return task.get();
+        }
+        RequestTiming previous = CURRENT.get();
+        CURRENT.set(timing);
+        try {
+            return task.get();
+        } finally {
+            CURRENT.set(previous);
+        }
+    }
+
+    public long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    public long nanos(Phase phase) {
+        return nanos.get(phase.ordinal());
+    }
+
+    public long count(Phase phase) {
+        return counts.get(phase.ordinal());
+    }
+
+    /**
+     * The {@code Server-Timing} header value, e.g. {@code auth;dur=0.42, db;dur=8.10;desc="3 Mongo commands", total;dur=15.03}.
+     */
+    public String toServerTiming(long totalNanos) {
+        StringBuilder header = new StringBuilder(160);
+        for (Phase phase : PHASES) {
+            long count = count(phase);
+            if (count == 0) {
+                continue;
+            }
+            header.append(phase.metric).append(";dur=");
+            appendMillis(header, nanos(phase));
+            header.append(";desc=\"");
+            if (count > 1) {
+                header.append(count).append(' ');
+            }
+            header.append(phase.description).append("\", ");
+        }
+        header.append("total;dur=");
+        appendMillis(header, totalNanos);
+        return header.toString();
+    }
+
+    // Milliseconds with two decimals, without going through String.format
+    public static void appendMillis(StringBuilder out, long nanos) {
+        long hundredths = nanos / 10_000;
+        out.append(hundredths / 100).append('.');
+        long fraction = hundredths % 100;
+        if (fraction < 10) {
+            out.append('0');
+        }
+        out.append(fraction);
+    }
+}
@@ -0,0 +1,313 @@
+package com.projectpb.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projectpb.websocket.RealtimeCodec;
+import com.projectpb.websocket.RealtimeEnvelope;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Server-side cache of serialized list responses, one entry per (collection, user, encoding).
+ * Every entry is stamped with the generation of its collection at load time; any write
+ * bumps the generation so stale entries are never served and simply age out of the LRU.
+ * When the Redis tier is enabled the generation lives in Redis so all instances agree on it; a collection whose
+ * bump could not reach Redis bypasses the cache until a later bump succeeds, as Redis still serves its stale body.
+ * Without it every instance keeps its own generations, so writes are broadcast over the realtime relay for the
+ * other instances to drop their entries; as that relay may shed messages, those entries also expire after a while.
+ */
+@Service
+public class ResponseCacheService implements MessageListener {
+    private static final Logger logger = LoggerFactory.getLogger(ResponseCacheService.class);
+
+    private static final String GENERATION_PREFIX = "cache:gen:";
+    private static final String BODY_PREFIX = "cache:body:";
+
+    private final Map<ResponseEncoding, ObjectMapper> mappers = new EnumMap<>(ResponseEncoding.class);
+    private final RedisTemplate<String, byte[]> redisTemplate;
+    private final long maxBytes;
+    private final long maxEntryBytes;
+    private final Duration redisTtl;
+    private final RealtimeService realtimeService;
+    private final RealtimeCodec codec;
+    // Set when the generations are local and other instances learn about writes through the relay
+    private final boolean broadcast;
+    private final long relayMaxAgeMs;
+
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+    // Collections whose last bump failed to reach Redis
+    private final Set<String> unconfirmed = ConcurrentHashMap.newKeySet();
+
+    // Access-ordered map: iteration starts at the least recently used entry
+    private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long currentBytes;
+
+    private final Counter hits;
+    private final Counter redisHits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public ResponseCacheService(ObjectMapper objectMapper,
+                                RedisConnectionFactory connectionFactory,
+                                MeterRegistry meterRegistry,
+                                @Value("${projectpb.cache.maxBytes:67108864}") long maxBytes,
+                                @Value("${projectpb.cache.maxEntryBytes:4194304}") long maxEntryBytes,
+                                @Value("${projectpb.cache.redis.enabled:false}") boolean redisEnabled,
+                                @Value("${projectpb.cache.redis.ttlSeconds:300}") long redisTtlSeconds,
+                                RealtimeService realtimeService,
+                                RealtimeCodec codec,
+                                @Value("${projectpb.realtime.relay.enabled:true}") boolean relayEnabled,
+                                @Value("${projectpb.cache.relay.maxAgeSeconds:60}") long relayMaxAgeSeconds) {
+        for (ResponseEncoding encoding : ResponseEncoding.values()) {
+            mappers.put(encoding, encoding.mapper(objectMapper));
+        }
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = maxEntryBytes;
+        this.redisTtl = Duration.ofSeconds(redisTtlSeconds);
+        this.realtimeService = realtimeService;
+        this.codec = codec;
+        this.broadcast = !redisEnabled && relayEnabled;
+        this.relayMaxAgeMs = TimeUnit.SECONDS.toMillis(relayMaxAgeSeconds);
+
+        if (redisEnabled) {
+            RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+            template.setConnectionFactory(connectionFactory);
+            template.setKeySerializer(RedisSerializer.string());
+            template.setValueSerializer(RedisSerializer.byteArray());
+            template.afterPropertiesSet();
+            this.redisTemplate = template;
+        } else {
+            this.redisTemplate = null;
+        }
+
+        this.hits = Counter.builder("projectpb.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.redisHits = Counter.builder("projectpb.cache.requests").tag("result", "redis_hit").register(meterRegistry);
+        this.misses = Counter.builder("projectpb.cache.requests").tag("result", "miss").register(meterRegistry);
+        this.evictions = Counter.builder("projectpb.cache.evictions").register(meterRegistry);
+        Gauge.builder("projectpb.cache.size", this, ResponseCacheService::sizeInBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("projectpb.cache.entries", this, ResponseCacheService::entryCount)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the serialized JSON body for the given user's collection, loading and
+     * serializing it with {@code loader} only when no entry of the current generation exists.
+     */
+    public byte[] get(String collection, String userId, Supplier<?> loader) {
+        return get(collection, userId, ResponseEncoding.JSON, loader);
+    }
+
+    /**
+     * Same as {@link #get(String, String, Supplier)} in the given encoding. Each encoding is cached separately,
+     * under the same generation.
+     */
+    public byte[] get(String collection, String userId, ResponseEncoding encoding, Supplier<?> loader) {
+        String generationKey = collection + ":" + userId;
+        String key = entryKey(generationKey, encoding);
+
+        // Read the generation before loading so a concurrent write can only make us cache an entry that is already stale
+        long generation = currentGeneration(generationKey);
+        if (generation < 0) {
+            misses.increment();
+            return serialize(encoding, loader.get());
+        }
+
+        CachedResponse cached;
+        synchronized (entries) {
+            cached = entries.get(key);
+        }
+        if (cached != null && cached.generation() == generation && !expired(cached)) {
+            hits.increment();
+            return cached.body();
+        }
+
+        byte[] body = redisGet(key, generation);
+        if (body != null) {
+            redisHits.increment();
+            put(key, generation, body);
+            return body;
+        }
+
+        misses.increment();
+        body = serialize(encoding, loader.get());
+        put(key, generation, body);
+        redisPut(key, generation, body);
+        return body;
+    }
+
+    /**
+     * Bumps the generation of a user's collection. Call after every write to that collection.
+     */
+    public void invalidate(String collection, String userId) {
+        String key = collection + ":" + userId;
+        if (redisTemplate != null) {
+            unconfirmed.add(key);
+            bumpRedisGeneration(key);
+        } else if (broadcast) {
+            realtimeService.publishCacheEvent(collection,
+                    realtimeService.createEvent("CACHE_INVALIDATE", null, userId, null, collection));
+        }
+        invalidateLocal(key);
+    }
+
+    /**
+     * Drops the entries of a collection written on another instance.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            RealtimeEnvelope event = codec.decode(new String(message.getBody(), StandardCharsets.UTF_8));
+            if (realtimeService.getNodeId().equals(event.origin())) {
+                return;
+            }
+            invalidateLocal(event.data() + ":" + event.userId());
+        } catch (IllegalArgumentException e) {
+            logger.warn("Ignoring cache invalidation message: {}", e.getMessage());
+        }
+    }
+
+    private void invalidateLocal(String key) {
+        generations.computeIfAbsent(key, k -> new AtomicLong()).incrementAndGet();
+        synchronized (entries) {
+            for (ResponseEncoding encoding : ResponseEncoding.values()) {
+                CachedResponse removed = entries.remove(entryKey(key, encoding));
+                if (removed != null) {
+                    currentBytes -= removed.body().length;
+                }
+            }
+        }
+    }
+
+    // JSON entries keep the key they had before other encodings existed, so Redis entries stay valid across versions
+    private static String entryKey(String generationKey, ResponseEncoding encoding) {
+        return encoding == ResponseEncoding.JSON ? generationKey : generationKey + ":" + encoding.name();
+    }
+
+    public long sizeInBytes() {
+        synchronized (entries) {
+            return currentBytes;
+        }
+    }
+
+    public int entryCount() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private boolean bumpRedisGeneration(String key) {
+        try {
+            redisTemplate.opsForValue().increment(GENERATION_PREFIX + key);
+            unconfirmed.remove(key);
+            return true;
+        } catch (Exception e) {
+            logger.warn("Could not bump cache generation in Redis for {}: {}", key, e.getMessage());
+            return false;
+        }
+    }
+
+    // Returns -1 when the generation cannot be determined, in which case the cache is bypassed
+    private long currentGeneration(String key) {
+        if (redisTemplate == null) {
+            return generations.computeIfAbsent(key, k -> new AtomicLong()).get();
+        }
+        // Until the pending bump lands, the Redis generation still points at the body from before the write
+        if (unconfirmed.contains(key) && !bumpRedisGeneration(key)) {
+            return -1;
+        }
+        try {
+            byte[] raw = redisTemplate.opsForValue().get(GENERATION_PREFIX + key);
+            // INCR stores the counter as its decimal string representation
+            return raw == null ? 0 : Long.parseLong(new String(raw));
+        } catch (Exception e) {
+            logger.warn("Could not read cache generation from Redis: {}", e.getMessage());
+            return -1;
+        }
+    }
+
+    // A missed broadcast would otherwise leave the entry stale until the next write
+    private boolean expired(CachedResponse cached) {
+        return broadcast && System.currentTimeMillis() - cached.loadedAt() > relayMaxAgeMs;
+    }
+
+    private void put(String key, long generation, byte[] body) {
+        if (body.length > maxEntryBytes) {
+            return;
+        }
+        synchronized (entries) {
+            CachedResponse previous = entries.put(key, new CachedResponse(generation, body, System.currentTimeMillis()));
+            currentBytes += body.length;
+            if (previous != null) {
+                currentBytes -= previous.body().length;
+            }
+
+            Iterator<CachedResponse> eldest = entries.values().iterator();
+            while (currentBytes > maxBytes && eldest.hasNext()) {
+                currentBytes -= eldest.next().body().length;
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    private byte[] redisGet(String key, long generation) {
+        if (redisTemplate == null) {
+            return null;
+        }
+        try {
+            return redisTemplate.opsForValue().get(BODY_PREFIX + key + ":" + generation);
+        } catch (Exception e) {
+            logger.warn("Could not read cached response from Redis: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void redisPut(String key, long generation, byte[] body) {
+        if (redisTemplate == null || body.length > maxEntryBytes) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(BODY_PREFIX + key + ":" + generation, body, redisTtl);
+        } catch (Exception e) {
+            logger.warn("Could not write cached response to Redis: {}", e.getMessage());
+        }
+    }
+
+    private byte[] serialize(ResponseEncoding encoding, Object value) {
+        long started = RequestTiming.now();
+        try {
+            return mappers.get(encoding).writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize cached response", e);
+        } finally {
+            RequestTiming.record(RequestTiming.Phase.JSON, started);
+        }
+    }
+
+    private record CachedResponse(long generation, byte[] body, long loadedAt) {
+    }
+}
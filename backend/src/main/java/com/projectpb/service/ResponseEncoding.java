@@ -0,0 +1,76 @@
+package com.projectpb.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Encodings of the serialized list responses. JSON unless the client explicitly asks for Smile or CBOR,
+ * the binary forms of the same documents (same field names and values, no schema).
+ */
+public enum ResponseEncoding {
+    JSON(MediaType.APPLICATION_JSON, null),
+    SMILE(new MediaType("application", "x-jackson-smile"), SmileFactory::new),
+    CBOR(MediaType.APPLICATION_CBOR, CBORFactory::new);
+
+    private static final ResponseEncoding[] BINARY = {SMILE, CBOR};
+
+    private final MediaType mediaType;
+    private final Supplier<JsonFactory> factory;
+
+    ResponseEncoding(MediaType mediaType, Supplier<JsonFactory> factory) {
+        this.mediaType = mediaType;
+        this.factory = factory;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    /**
+     * A mapper for this encoding configured like the application's JSON mapper.
+     */
+    public ObjectMapper mapper(ObjectMapper jsonMapper) {
+        return factory == null ? jsonMapper : jsonMapper.copyWith(factory.get());
+    }
+
+    /**
+     * The encoding for an {@code Accept} header: Smile or CBOR when listed with a quality at least that of
+     * {@code application/json}, JSON otherwise (including wildcards, no header and unparseable headers).
+     */
+    public static ResponseEncoding negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return JSON;
+        }
+        List<MediaType> types;
+        try {
+            types = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return JSON;
+        }
+
+        ResponseEncoding best = JSON;
+        double bestQuality = 0;
+        double jsonQuality = 0;
+        for (MediaType type : types) {
+            double quality = type.getQualityValue();
+            if (type.equalsTypeAndSubtype(MediaType.APPLICATION_JSON)) {
+                jsonQuality = Math.max(jsonQuality, quality);
+            } else if (quality > bestQuality) {
+                for (ResponseEncoding encoding : BINARY) {
+                    if (type.equalsTypeAndSubtype(encoding.mediaType)) {
+                        best = encoding;
+                        bestQuality = quality;
+                    }
+                }
+            }
+        }
+        return bestQuality > 0 && bestQuality >= jsonQuality ? best : JSON;
+    }
+}
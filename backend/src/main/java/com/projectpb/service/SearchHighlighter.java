@@ -0,0 +1,127 @@
+package com.projectpb.service;
+
+import com.projectpb.model.SearchHit;
+import org.bson.Document;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Finds the query terms in the fields of a matched document and cuts a fragment around them.
+ * Terms are matched as whole words, ignoring case and accents like the text index does.
+ */
+class SearchHighlighter {
+
+    private static final int FRAGMENT_LENGTH = 160;
+    private static final int CONTEXT_BEFORE = 40;
+    private static final int MAX_HIGHLIGHTS = 3;
+
+    private final Set<String> terms;
+
+    SearchHighlighter(String query) {
+        // Quotes only group phrases and "-word" excludes a word: neither can appear in a match
+        this.terms = tokens(query).stream()
+                .filter(token -> !token.word().isEmpty() && !token.negated())
+                .map(Token::word)
+                .collect(Collectors.toSet());
+    }
+
+    List<SearchHit.Highlight> highlight(Document document, List<String> fields) {
+        List<SearchHit.Highlight> highlights = new ArrayList<>();
+        for (String field : fields) {
+            List<String> values = new ArrayList<>();
+            collect(document, field.split("\\."), 0, values);
+            for (String value : values) {
+                SearchHit.Highlight highlight = highlight(field, value);
+                if (highlight != null) {
+                    highlights.add(highlight);
+                    if (highlights.size() == MAX_HIGHLIGHTS) {
+                        return highlights;
+                    }
+                }
+            }
+        }
+        return highlights;
+    }
+
+    private SearchHit.Highlight highlight(String field, String value) {
+        List<int[]> matches = new ArrayList<>();
+        for (int[] word : words(value)) {
+            if (terms.contains(fold(value, word[0], word[1]))) {
+                matches.add(word);
+            }
+        }
+        if (matches.isEmpty()) {
+            return null;
+        }
+
+        int start = Math.max(0, matches.get(0)[0] - CONTEXT_BEFORE);
+        int end = Math.min(value.length(), start + FRAGMENT_LENGTH);
+        List<int[]> inFragment = new ArrayList<>();
+        for (int[] match : matches) {
+            if (match[1] <= end) {
+                inFragment.add(new int[]{match[0] - start, match[1] - start});
+            }
+        }
+        return new SearchHit.Highlight(field, value.substring(start, end), inFragment);
+    }
+
+    // Values along a dotted path, flattening arrays at any level (e.g. games.comments.text)
+    private static void collect(Object node, String[] path, int depth, List<String> values) {
+        if (node instanceof List<?> list) {
+            for (Object element : list) {
+                collect(element, path, depth, values);
+            }
+        } else if (depth == path.length) {
+            if (node instanceof String text) {
+                values.add(text);
+            }
+        } else if (node instanceof Document document) {
+            collect(document.get(path[depth]), path, depth + 1, values);
+        }
+    }
+
+    // [start, end) of every run of letters and digits
+    private static List<int[]> words(String text) {
+        List<int[]> words = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                words.add(new int[]{start, i});
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    private static List<Token> tokens(String query) {
+        List<Token> tokens = new ArrayList<>();
+        for (String part : query.split("[\\s\"]+")) {
+            boolean negated = part.startsWith("-");
+            for (int[] word : words(part)) {
+                tokens.add(new Token(fold(part, word[0], word[1]), negated));
+            }
+        }
+        return tokens;
+    }
+
+    // Lower case without accents, one char per char so offsets stay valid
+    private static String fold(String text, int start, int end) {
+        StringBuilder folded = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            String decomposed = Normalizer.normalize(String.valueOf(text.charAt(i)), Normalizer.Form.NFD);
+            folded.append(decomposed.toLowerCase(Locale.ROOT).charAt(0));
+        }
+        return folded.toString();
+    }
+
+    private record Token(String word, boolean negated) {
+    }
+}
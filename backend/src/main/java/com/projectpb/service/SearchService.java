@@ -0,0 +1,173 @@
+package com.projectpb.service;
+
+import com.projectpb.model.SearchHit;
+import com.projectpb.model.SearchResults;
+import com.mongodb.MongoCommandException;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Per-user full-text search over notes, comments, tags and workouts.
+ * Each searchable collection has one Mongo text index prefixed by {@code userId}, so a query only walks
+ * the index entries of the current user. The collections are queried concurrently and the hits merged by text score.
+ * The indexes use no language: words are matched as typed (ignoring case and accents), whatever language the notes are in.
+ */
+@Service
+@RequiredArgsConstructor
+public class SearchService {
+
+    private static final String INDEX_NAME = "search";
+    private static final String LANGUAGE = "none";
+    public static final int MAX_DEPTH = 1000; // Hits reachable by paging: page * size stays below it
+    private static final Set<Integer> INDEX_CONFLICT_CODES = Set.of(85, 86); // IndexOptionsConflict, IndexKeySpecsConflict
+
+    private static final List<Source> SOURCES = List.of(
+            new Source("RANKED_SESSION", "ranked_sessions", "date", null,
+                    List.of(new Field("notes", 2))),
+            new Source("RANKED_GAMES", "ranked_game_buckets", null, "sessionId",
+                    List.of(new Field("games.notes", 1), new Field("games.comments.text", 1))),
+            new Source("RANKED_SESSION", "ranked_sessions_archive", "date", null,
+                    List.of(new Field("notes", 2))),
+            new Source("RANKED_GAMES", "ranked_game_buckets_archive", null, "sessionId",
+                    List.of(new Field("games.notes", 1), new Field("games.comments.text", 1))),
+            new Source("VOD", "vods", "title", null,
+                    List.of(new Field("title", 3), new Field("tags", 2), new Field("notes", 1))),
+            new Source("VOD_COMMENT", "vod_comments", null, "vodId",
+                    List.of(new Field("text", 1))),
+            new Source("TRAINING_SESSION", "training_sessions", "title", null,
+                    List.of(new Field("title", 3), new Field("tags", 2), new Field("notes", 1))),
+            new Source("TRAINING_SESSION", "training_sessions_archive", "title", null,
+                    List.of(new Field("title", 3), new Field("tags", 2), new Field("notes", 1))),
+            new Source("WORKOUT", "workouts", "title", null,
+                    List.of(new Field("title", 3), new Field("tags", 2), new Field("description", 1), new Field("notes", 1)))
+    );
+
+    private final MongoTemplate mongoTemplate;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public SearchResults search(String userId, String text, int page, int size) {
+        if ((long) page * size >= MAX_DEPTH) {
+            return new SearchResults(text, page, size, false, List.of());
+        }
+        int skip = page * size;
+        // Each collection returns its own best (skip + size) hits, plus one to know whether there is a next page
+        int limit = skip + size + 1;
+        SearchHighlighter highlighter = new SearchHighlighter(text);
+
+        List<CompletableFuture<List<SearchHit>>> parts = new ArrayList<>();
+        for (Source source : SOURCES) {
+            parts.add(CompletableFuture.supplyAsync(() -> search(source, userId, text, limit, highlighter), executor));
+        }
+        List<SearchHit> hits = new ArrayList<>();
+        for (CompletableFuture<List<SearchHit>> part : parts) {
+            hits.addAll(part.join());
+        }
+        hits.sort(Comparator.comparingDouble(SearchHit::score).reversed());
+
+        boolean hasMore = hits.size() > skip + size && skip + size < MAX_DEPTH;
+        List<SearchHit> pageHits = hits.subList(Math.min(skip, hits.size()), Math.min(skip + size, hits.size()));
+        return new SearchResults(text, page, size, hasMore, List.copyOf(pageHits));
+    }
+
+    private List<SearchHit> search(Source source, String userId, String text, int limit, SearchHighlighter highlighter) {
+        Query query = TextQuery.queryText(TextCriteria.forLanguage(LANGUAGE).matching(text))
+                .sortByScore()
+                .addCriteria(where("userId").is(userId))
+                .limit(limit);
+        for (Field field : source.fields()) {
+            query.fields().include(field.path());
+        }
+        if (source.titleField() != null) {
+            query.fields().include(source.titleField());
+        }
+        if (source.parentField() != null) {
+            query.fields().include(source.parentField());
+        }
+
+        List<String> paths = source.fields().stream().map(Field::path).toList();
+        List<SearchHit> hits = new ArrayList<>();
+        for (Document document : mongoTemplate.find(query, Document.class, source.collection())) {
+            hits.add(new SearchHit(
+                    source.type(),
+                    document.get("_id").toString(),
+                    source.parentField() != null ? document.getString(source.parentField()) : null,
+                    source.titleField() != null ? document.getString(source.titleField()) : null,
+                    document.get("score", Number.class).doubleValue(),
+                    highlighter.highlight(document, paths)));
+        }
+        return hits;
+    }
+
+    /**
+     * Create the text index of every searchable collection (a collection can only have one).
+     */
+    public void ensureIndexes() {
+        for (Source source : SOURCES) {
+            IndexOperations indexOps = mongoTemplate.indexOps(source.collection());
+            try {
+                indexOps.ensureIndex(textIndex(source));
+            } catch (DataAccessException e) {
+                // Same name, other fields: the fields of the source changed, replace the index
+                if (!(e.getCause() instanceof MongoCommandException command && INDEX_CONFLICT_CODES.contains(command.getErrorCode()))) {
+                    throw e;
+                }
+                indexOps.dropIndex(INDEX_NAME);
+                indexOps.ensureIndex(textIndex(source));
+            }
+        }
+    }
+
+    private static IndexDefinition textIndex(Source source) {
+        Document keys = new Document("userId", 1);
+        Document weights = new Document();
+        for (Field field : source.fields()) {
+            keys.append(field.path(), "text");
+            weights.append(field.path(), field.weight());
+        }
+        Document options = new Document("name", INDEX_NAME)
+                .append("default_language", LANGUAGE)
+                .append("weights", weights);
+        return new IndexDefinition() {
+            @Override
+            public Document getIndexKeys() {
+                return keys;
+            }
+
+            @Override
+            public Document getIndexOptions() {
+                return options;
+            }
+        };
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private record Source(String type, String collection, String titleField, String parentField, List<Field> fields) {
+    }
+
+    private record Field(String path, int weight) {
+    }
+}
@@ -0,0 +1,379 @@
+package com.projectpb.service;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import com.projectpb.model.SlowQueryShape;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mongo command listener recording the query and write commands slower than {@code thresholdMs} per shape: the command
+ * with its literal values replaced by "?", so {@code find vods {userId: "a"}} and {@code {userId: "b"}} add up together.
+ * Whether a command is slow is only known when it completes, after its document is gone: the query part of a command
+ * (filter, pipeline, sort..., never its update payload) is copied for a {@code shapeSampleRate} share of them only, and
+ * the shape is built once such a command turns out slow. Every slow command is counted, but the shape statistics cover
+ * the sampled ones; the timings of every command are the driver's {@code mongodb.driver.commands} metrics. A slow command is, with probability {@code explainSampleRate} and at most
+ * once per {@code explainIntervalMs} per shape, explained again in the background; the plan summary is logged and
+ * kept with the shape. Commands that are not queries or writes (handshakes, getMore, inserts...) and the commands
+ * sent during the JIT warm-up are ignored.
+ */
+@Service
+public class SlowQueryDetector implements CommandListener {
+    private static final Logger logger = LoggerFactory.getLogger(SlowQueryDetector.class);
+
+    private static final Set<String> TRACKED = Set.of("find", "aggregate", "count", "distinct", "update", "delete", "findAndModify");
+
+    // Parts of a command that define its shape (values normalized) and parts kept verbatim
+    private static final Set<String> SHAPE_FIELDS = Set.of("filter", "query", "pipeline", "key", "updates", "deletes", "q", "multi");
+    private static final Set<String> VERBATIM_FIELDS = Set.of("sort", "projection", "fields", "hint");
+    // Parts of an update or delete statement kept while it runs: the update document itself can be large
+    private static final Set<String> STATEMENT_FIELDS = Set.of("q", "multi");
+
+    private final ObjectProvider<MongoTemplate> mongoTemplate;
+    private final MeterRegistry meterRegistry;
+    private final WarmupTraffic warmupTraffic;
+    private final boolean enabled;
+    private final long thresholdNanos;
+    private final double shapeSampleRate;
+    private final double explainSampleRate;
+    private final long explainIntervalMs;
+    private final int maxShapes;
+
+    private final Map<Integer, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, ShapeStats> shapes = new ConcurrentHashMap<>();
+
+    // One background explain at a time; explains beyond the small queue are skipped
+    private final ThreadPoolExecutor explainer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(16), runnable -> {
+        Thread thread = new Thread(runnable, "mongo-explain");
+        thread.setDaemon(true);
+        return thread;
+    }, new ThreadPoolExecutor.DiscardPolicy());
+
+    public SlowQueryDetector(ObjectProvider<MongoTemplate> mongoTemplate,
+                             MeterRegistry meterRegistry,
+                             WarmupTraffic warmupTraffic,
+                             @Value("${projectpb.mongo.slowQuery.enabled:true}") boolean enabled,
+                             @Value("${projectpb.mongo.slowQuery.thresholdMs:100}") long thresholdMs,
+                             @Value("${projectpb.mongo.slowQuery.shapeSampleRate:0.1}") double shapeSampleRate,
+                             @Value("${projectpb.mongo.slowQuery.explainSampleRate:0.1}") double explainSampleRate,
+                             @Value("${projectpb.mongo.slowQuery.explainIntervalMs:60000}") long explainIntervalMs,
+                             @Value("${projectpb.mongo.slowQuery.maxShapes:1000}") int maxShapes) {
+        this.mongoTemplate = mongoTemplate;
+        this.meterRegistry = meterRegistry;
+        this.warmupTraffic = warmupTraffic;
+        this.enabled = enabled;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+        this.shapeSampleRate = shapeSampleRate;
+        this.explainSampleRate = explainSampleRate;
+        this.explainIntervalMs = explainIntervalMs;
+        this.maxShapes = maxShapes;
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        // The warm-up runs cold code on purpose
+        if (!enabled || !TRACKED.contains(event.getCommandName()) || warmupTraffic.isActive() || !sampled(shapeSampleRate)) {
+            return;
+        }
+        // The event's document is only valid during this callback: copy the query part, not the whole command
+        BsonDocument command = event.getCommand();
+        String commandName = event.getCommandName();
+        String collection = command.get(commandName) instanceof BsonString name ? name.getValue() : null;
+        inFlight.put(event.getRequestId(), new InFlight(event.getDatabaseName(), commandName, collection, queryPart(command)));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        InFlight started = inFlight.remove(event.getRequestId());
+        long elapsedNanos = event.getElapsedTime(TimeUnit.NANOSECONDS);
+        if (started != null) {
+            record(started, elapsedNanos);
+        } else if (enabled && elapsedNanos >= thresholdNanos && TRACKED.contains(event.getCommandName())
+                && !warmupTraffic.isActive()) {
+            // Not sampled: counted, without a shape
+            slowCounter(event.getCommandName());
+        }
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        inFlight.remove(event.getRequestId());
+    }
+
+    /**
+     * The {@code limit} shapes that spent the most time slow.
+     */
+    public List<SlowQueryShape> top(int limit) {
+        return shapes.values().stream()
+                .sorted(Comparator.comparingLong((ShapeStats stats) -> stats.slowNanos.sum()).reversed())
+                .limit(limit)
+                .map(ShapeStats::snapshot)
+                .toList();
+    }
+
+    private void record(InFlight started, long elapsedNanos) {
+        if (elapsedNanos < thresholdNanos) {
+            return;
+        }
+        slowCounter(started.commandName());
+
+        String shape = started.commandName() + " " + started.collection() + " " + shape(started.query()).toJson();
+        ShapeStats stats = shapes.get(shape);
+        if (stats == null) {
+            if (shapes.size() >= maxShapes) {
+                return;
+            }
+            stats = shapes.computeIfAbsent(shape, key -> new ShapeStats(key, started.commandName(), started.collection()));
+        }
+        stats.slow(elapsedNanos);
+        if (stats.shouldExplain()) {
+            ShapeStats explained = stats;
+            explainer.execute(() -> explain(explained, started, elapsedNanos));
+        }
+    }
+
+    private void slowCounter(String commandName) {
+        meterRegistry.counter("projectpb.mongo.slow", "command", commandName).increment();
+    }
+
+    private static boolean sampled(double rate) {
+        return rate >= 1 || ThreadLocalRandom.current().nextDouble() < rate;
+    }
+
+    private void explain(ShapeStats stats, InFlight started, long elapsedNanos) {
+        try {
+            Document explain = new Document("explain", explainedCommand(started)).append("verbosity", "executionStats");
+            Document result = mongoTemplate.getObject().getMongoDatabaseFactory()
+                    .getMongoDatabase(started.database())
+                    .runCommand(explain);
+
+            SlowQueryShape.PlanSummary plan = summarize(result);
+            stats.lastPlan = plan;
+            logger.warn("Slow Mongo command ({} ms): {} -> plan {}, keys examined {}, docs examined {}, returned {}",
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos), stats.shape, plan.plan(),
+                    plan.keysExamined(), plan.docsExamined(), plan.returned());
+        } catch (Exception e) {
+            logger.warn("Could not explain slow Mongo command {}: {}", stats.shape, e.getMessage());
+        }
+    }
+
+    // Only the parts the shape and the explain need; session, cluster time, read preference... are left out too
+    static BsonDocument queryPart(BsonDocument command) {
+        BsonDocument query = new BsonDocument();
+        command.forEach((key, value) -> {
+            if (key.equals("updates") || key.equals("deletes")) {
+                BsonArray statements = new BsonArray();
+                value.asArray().forEach(statement -> {
+                    BsonDocument kept = new BsonDocument();
+                    statement.asDocument().forEach((field, part) -> {
+                        if (STATEMENT_FIELDS.contains(field)) {
+                            kept.put(field, copy(part));
+                        }
+                    });
+                    statements.add(kept);
+                });
+                query.put(key, statements);
+            } else if (SHAPE_FIELDS.contains(key) || VERBATIM_FIELDS.contains(key)) {
+                query.put(key, copy(value));
+            }
+        });
+        return query;
+    }
+
+    private static BsonValue copy(BsonValue value) {
+        if (value.isDocument()) {
+            BsonDocument copy = new BsonDocument();
+            value.asDocument().forEach((key, nested) -> copy.put(key, copy(nested)));
+            return copy;
+        }
+        if (value.isArray()) {
+            BsonArray copy = new BsonArray();
+            value.asArray().forEach(element -> copy.add(copy(element)));
+            return copy;
+        }
+        return value;
+    }
+
+    // Without their update documents, writes are explained as the find selecting the documents they modify
+    private static BsonDocument explainedCommand(InFlight started) {
+        BsonDocument query = started.query();
+        BsonDocument command = new BsonDocument(started.commandName(), new BsonString(started.collection()));
+        switch (started.commandName()) {
+            case "update", "delete" -> {
+                BsonArray statements = query.getArray(started.commandName().equals("update") ? "updates" : "deletes");
+                BsonValue filter = statements.isEmpty() ? new BsonDocument() : statements.get(0).asDocument().get("q");
+                command = new BsonDocument("find", new BsonString(started.collection()))
+                        .append("filter", filter != null ? filter : new BsonDocument());
+            }
+            case "findAndModify" -> {
+                command = new BsonDocument("find", new BsonString(started.collection()))
+                        .append("filter", query.get("query", new BsonDocument()))
+                        .append("limit", new BsonInt32(1));
+                if (query.containsKey("sort")) {
+                    command.append("sort", query.get("sort"));
+                }
+            }
+            default -> command.putAll(query);
+        }
+        return command;
+    }
+
+    // The shape keeps field names and operators, and replaces every value by "?"
+    static BsonDocument shape(BsonDocument command) {
+        BsonDocument shape = new BsonDocument();
+        command.forEach((key, value) -> {
+            if (SHAPE_FIELDS.contains(key)) {
+                shape.put(key, normalize(value));
+            } else if (VERBATIM_FIELDS.contains(key)) {
+                shape.put(key, value);
+            }
+        });
+        return shape;
+    }
+
+    private static BsonValue normalize(BsonValue value) {
+        if (value.isDocument()) {
+            BsonDocument normalized = new BsonDocument();
+            value.asDocument().forEach((key, nested) -> normalized.put(key, normalize(nested)));
+            return normalized;
+        }
+        // Arrays of documents ($and, $or, pipelines, update statements) have structure; other arrays ($in...) are values
+        if (value.isArray() && !value.asArray().isEmpty() && value.asArray().stream().allMatch(BsonValue::isDocument)) {
+            BsonArray normalized = new BsonArray();
+            value.asArray().forEach(element -> normalized.add(normalize(element)));
+            return normalized;
+        }
+        return new BsonString("?");
+    }
+
+    static SlowQueryShape.PlanSummary summarize(Document explain) {
+        Document planner = find(explain, "queryPlanner");
+        Document executionStats = find(explain, "executionStats");
+        List<String> stages = new ArrayList<>();
+        if (planner != null && planner.get("winningPlan") instanceof Document winningPlan) {
+            collectStages(winningPlan, stages);
+        }
+        return new SlowQueryShape.PlanSummary(
+                stages.isEmpty() ? "unknown" : String.join(" > ", stages.reversed()),
+                number(executionStats, "totalKeysExamined"),
+                number(executionStats, "totalDocsExamined"),
+                number(executionStats, "nReturned"),
+                number(executionStats, "executionTimeMillis"),
+                System.currentTimeMillis());
+    }
+
+    // Outermost stage first; slot-based plans nest the classic plan under "queryPlan"
+    private static void collectStages(Document plan, List<String> stages) {
+        Document current = plan.get("queryPlan") instanceof Document queryPlan ? queryPlan : plan;
+        while (current != null) {
+            String stage = current.getString("stage");
+            if (stage != null) {
+                String index = current.getString("indexName");
+                stages.add(index != null ? stage + "(" + index + ")" : stage);
+            }
+            current = current.get("inputStage") instanceof Document input ? input : null;
+        }
+    }
+
+    // First nested document with this key, depth first (aggregate explains wrap the plan in their stages)
+    private static Document find(Object node, String key) {
+        if (node instanceof Document document) {
+            if (document.get(key) instanceof Document found) {
+                return found;
+            }
+            for (Object value : document.values()) {
+                Document found = find(value, key);
+                if (found != null) {
+                    return found;
+                }
+            }
+        } else if (node instanceof List<?> list) {
+            for (Object value : list) {
+                Document found = find(value, key);
+                if (found != null) {
+                    return found;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static long number(Document document, String key) {
+        return document != null && document.get(key) instanceof Number value ? value.longValue() : -1;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        explainer.shutdownNow();
+    }
+
+    private record InFlight(String database, String commandName, String collection, BsonDocument query) {
+    }
+
+    private final class ShapeStats {
+        final String shape;
+        final String command;
+        final String collection;
+        final LongAdder slowCount = new LongAdder();
+        final LongAdder slowNanos = new LongAdder();
+        final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        final AtomicLong lastExplainAt = new AtomicLong();
+        volatile SlowQueryShape.PlanSummary lastPlan;
+
+        ShapeStats(String shape, String command, String collection) {
+            this.shape = shape;
+            this.command = command;
+            this.collection = collection;
+        }
+
+        void slow(long nanos) {
+            slowCount.increment();
+            slowNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        boolean shouldExplain() {
+            if (!sampled(explainSampleRate)) {
+                return false;
+            }
+            long now = System.currentTimeMillis();
+            long last = lastExplainAt.get();
+            return now - last >= explainIntervalMs && lastExplainAt.compareAndSet(last, now);
+        }
+
+        SlowQueryShape snapshot() {
+            long n = slowCount.sum();
+            return new SlowQueryShape(shape, command, collection, n,
+                    n == 0 ? 0 : slowNanos.sum() / 1e6 / n, maxNanos.get() / 1e6, lastPlan);
+        }
+    }
+}
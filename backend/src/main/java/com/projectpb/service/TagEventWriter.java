@@ -0,0 +1,161 @@
+package com.projectpb.service;
+
+import com.projectpb.model.TagEventRecord;
+import com.projectpb.websocket.RealtimeEnvelope;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind persistence of live tags: the STOMP thread only appends to a lock-free ring buffer,
+ * a background writer inserts them into the {@code tag_events} time-series collection with unordered bulk writes.
+ * A batch is written once it reaches {@code batchSize} events or its oldest event is {@code maxLatencyMs} old.
+ * When Mongo can't keep up the buffer fills and new tags are dropped (and counted) instead of growing memory.
+ */
+@Service
+public class TagEventWriter {
+    private static final Logger logger = LoggerFactory.getLogger(TagEventWriter.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final RingBuffer<TagEventRecord> buffer;
+    private final int batchSize;
+    private final long maxLatencyNanos;
+
+    private final Counter written;
+    private final Counter dropped;
+
+    private volatile boolean running;
+    private volatile boolean collectionReady;
+    private Thread writerThread;
+
+    public TagEventWriter(MongoTemplate mongoTemplate,
+                          MeterRegistry meterRegistry,
+                          @Value("${projectpb.tags.bufferCapacity:65536}") int bufferCapacity,
+                          @Value("${projectpb.tags.batchSize:500}") int batchSize,
+                          @Value("${projectpb.tags.maxLatencyMs:200}") long maxLatencyMs) {
+        this.mongoTemplate = mongoTemplate;
+        this.buffer = new RingBuffer<>(bufferCapacity);
+        this.batchSize = batchSize;
+        this.maxLatencyNanos = TimeUnit.MILLISECONDS.toNanos(maxLatencyMs);
+
+        this.written = Counter.builder("projectpb.tags.written").register(meterRegistry);
+        this.dropped = Counter.builder("projectpb.tags.dropped").register(meterRegistry);
+        Gauge.builder("projectpb.tags.buffered", buffer, RingBuffer::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        writerThread = new Thread(this::drainLoop, "tag-event-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Queue a tag for persistence. Never blocks; returns false if the tag was dropped.
+     */
+    public boolean append(RealtimeEnvelope event) {
+        TagEventRecord record = new TagEventRecord();
+        record.setGameId(event.gameId());
+        record.setTimestamp(Instant.ofEpochMilli(event.timestamp()));
+        record.setType(event.data() != null ? event.data().toString() : null);
+        record.setUserId(event.userId());
+        record.setOrigin(event.origin());
+        record.setSequence(event.sequence());
+
+        if (!buffer.offer(record)) {
+            dropped.increment();
+            return false;
+        }
+        return true;
+    }
+
+    private void drainLoop() {
+        List<TagEventRecord> batch = new ArrayList<>(batchSize);
+        long oldestQueuedAt = 0;
+        while (running) {
+            TagEventRecord record = buffer.poll();
+            if (record != null) {
+                if (batch.isEmpty()) {
+                    oldestQueuedAt = System.nanoTime();
+                }
+                batch.add(record);
+                if (batch.size() >= batchSize) {
+                    write(batch);
+                }
+                continue;
+            }
+            if (!batch.isEmpty() && System.nanoTime() - oldestQueuedAt >= maxLatencyNanos) {
+                write(batch);
+            } else {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    private void write(List<TagEventRecord> batch) {
+        try {
+            ensureCollection();
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TagEventRecord.class)
+                    .insert(batch)
+                    .execute();
+            written.increment(batch.size());
+        } catch (Exception e) {
+            // Not retried: retrying would only make the backlog (and the loss) larger while Mongo is struggling
+            logger.error("Could not persist {} tag events: {}", batch.size(), e.getMessage());
+            dropped.increment(batch.size());
+        }
+        batch.clear();
+    }
+
+    private void ensureCollection() {
+        if (collectionReady) {
+            return;
+        }
+        // A plain insert would create a regular collection: the time-series options must be set up front
+        if (!mongoTemplate.collectionExists(TagEventRecord.class)) {
+            mongoTemplate.createCollection(TagEventRecord.class);
+        }
+        collectionReady = true;
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        if (writerThread.isAlive()) {
+            logger.warn("Tag event writer did not stop in time, {} buffered tags are lost", buffer.size());
+            return;
+        }
+
+        // The writer thread has exited, so this thread is now the only consumer
+        List<TagEventRecord> batch = new ArrayList<>(batchSize);
+        TagEventRecord record;
+        while ((record = buffer.poll()) != null) {
+            batch.add(record);
+            if (batch.size() >= batchSize) {
+                write(batch);
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+}
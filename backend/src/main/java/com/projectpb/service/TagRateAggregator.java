@@ -0,0 +1,241 @@
+package com.projectpb.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projectpb.websocket.RealtimeCodec;
+import com.projectpb.websocket.RealtimeEnvelope;
+import com.projectpb.websocket.TagRateSnapshot;
+import com.projectpb.websocket.TopicBroadcaster;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Live tag rates per game and tag type over the last 10s, 1m and 5m.
+ * Recording only updates one slot of a ring of one-second counts; snapshots are computed at a fixed rate,
+ * merged with the snapshots of the other instances (received over Redis) and published to
+ * {@code /topic/game/{gameId}/stats}.
+ * Game ids and tag types come from clients, so memory is capped: types beyond {@code maxTypesPerGame} are counted
+ * under {@code OTHER}, and games beyond {@code maxGames} or windows (game and type) beyond {@code maxWindows} are not
+ * tracked until idle games are evicted. A window takes about 2.5 KB.
+ */
+@Service
+public class TagRateAggregator implements MessageListener {
+    private static final Logger logger = LoggerFactory.getLogger(TagRateAggregator.class);
+
+    static final int[] WINDOWS = {10, 60, 300};
+    private static final int BUCKETS = 300; // One per second of the largest window
+    private static final String EVENT_TYPE = "STATS";
+    private static final String UNKNOWN_TYPE = "UNKNOWN";
+    private static final String OTHER_TYPE = "OTHER";
+    private static final int MAX_TYPE_LENGTH = 64;
+
+    private final RealtimeService realtimeService;
+    private final RealtimeCodec codec;
+    private final TopicBroadcaster broadcaster;
+    private final ObjectMapper objectMapper;
+    private final long publishMs;
+    private final int maxGames;
+    private final int maxTypesPerGame;
+    private final int maxWindows;
+
+    private final Map<String, GameWindow> games = new ConcurrentHashMap<>();
+    // Windows of all games, recounted on every publish
+    private final AtomicInteger windows = new AtomicInteger();
+
+    // gameId -> origin node -> last snapshot received from that node
+    private final Map<String, Map<String, RemoteSnapshot>> remote = new ConcurrentHashMap<>();
+
+    public TagRateAggregator(RealtimeService realtimeService,
+                             RealtimeCodec codec,
+                             TopicBroadcaster broadcaster,
+                             ObjectMapper objectMapper,
+                             @Value("${projectpb.tags.stats.publishMs:1000}") long publishMs,
+                             @Value("${projectpb.tags.stats.maxGames:1000}") int maxGames,
+                             @Value("${projectpb.tags.stats.maxTypesPerGame:16}") int maxTypesPerGame,
+                             @Value("${projectpb.tags.stats.maxWindows:2000}") int maxWindows) {
+        this.realtimeService = realtimeService;
+        this.codec = codec;
+        this.broadcaster = broadcaster;
+        this.objectMapper = objectMapper;
+        this.publishMs = publishMs;
+        this.maxGames = maxGames;
+        this.maxTypesPerGame = maxTypesPerGame;
+        this.maxWindows = maxWindows;
+    }
+
+    public void record(String gameId, String type) {
+        long second = System.currentTimeMillis() / 1000;
+        GameWindow game = games.get(gameId);
+        if (game == null) {
+            if (games.size() >= maxGames || windows.get() >= maxWindows) {
+                return;
+            }
+            game = games.computeIfAbsent(gameId, id -> new GameWindow());
+        }
+        game.lastSecond = second;
+        String key = type == null ? UNKNOWN_TYPE : type;
+        TypeWindow window = game.types.get(key);
+        if (window == null) {
+            if (key.length() > MAX_TYPE_LENGTH || game.types.size() >= maxTypesPerGame) {
+                key = OTHER_TYPE;
+                window = game.types.get(key);
+            }
+            if (window == null) {
+                if (windows.get() >= maxWindows) {
+                    return;
+                }
+                TypeWindow created = new TypeWindow();
+                window = game.types.putIfAbsent(key, created);
+                if (window == null) {
+                    windows.incrementAndGet();
+                    window = created;
+                }
+            }
+        }
+        window.increment(second);
+    }
+
+    @Scheduled(fixedRateString = "${projectpb.tags.stats.publishMs:1000}")
+    public void publish() {
+        long now = System.currentTimeMillis();
+        long second = now / 1000;
+
+        games.entrySet().removeIf(game -> second - game.getValue().lastSecond >= BUCKETS);
+        windows.set(games.values().stream().mapToInt(game -> game.types.size()).sum());
+        remote.values().forEach(nodes -> nodes.values().removeIf(snapshot -> now - snapshot.receivedAt() > 3 * publishMs));
+        remote.values().removeIf(Map::isEmpty);
+
+        for (Map.Entry<String, GameWindow> game : games.entrySet()) {
+            TagRateSnapshot local = game.getValue().snapshot(second);
+            realtimeService.publishStatsEvent(realtimeService.createEvent(EVENT_TYPE, game.getKey(), null, now, local));
+            broadcast(game.getKey(), now, local);
+        }
+        // Games only tagged on other instances still need a snapshot for the subscribers of this one
+        for (String gameId : remote.keySet()) {
+            if (!games.containsKey(gameId)) {
+                broadcast(gameId, now, new TagRateSnapshot(WINDOWS, Map.of()));
+            }
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            RealtimeEnvelope event = codec.decode(new String(message.getBody(), StandardCharsets.UTF_8));
+            if (realtimeService.getNodeId().equals(event.origin())) {
+                return;
+            }
+            if (!remote.containsKey(event.gameId()) && remote.size() >= maxGames) {
+                return;
+            }
+            TagRateSnapshot snapshot = objectMapper.convertValue(event.data(), TagRateSnapshot.class);
+            Map<String, long[]> counts = new HashMap<>();
+            if (snapshot.counts() != null) {
+                snapshot.counts().forEach((type, typeCounts) -> add(counts, type, typeCounts));
+            }
+            remote.computeIfAbsent(event.gameId(), id -> new ConcurrentHashMap<>())
+                    .put(event.origin(), new RemoteSnapshot(new TagRateSnapshot(WINDOWS, counts), System.currentTimeMillis()));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Ignoring tag stats message: {}", e.getMessage());
+        }
+    }
+
+    private void broadcast(String gameId, long now, TagRateSnapshot local) {
+        Map<String, long[]> merged = new HashMap<>();
+        local.counts().forEach((type, counts) -> merged.put(type, counts.clone()));
+        Map<String, RemoteSnapshot> nodes = remote.get(gameId);
+        if (nodes != null) {
+            for (RemoteSnapshot node : nodes.values()) {
+                node.snapshot().counts().forEach((type, counts) -> add(merged, type, counts));
+            }
+        }
+        RealtimeEnvelope event = realtimeService.createEvent(EVENT_TYPE, gameId, null, now, new TagRateSnapshot(WINDOWS, merged));
+        broadcaster.broadcast("/topic/game/" + gameId + "/stats", event);
+    }
+
+    // Adds the counts of a type, under OTHER once the map holds maxTypesPerGame types
+    private void add(Map<String, long[]> totals, String type, long[] counts) {
+        String key = type == null ? UNKNOWN_TYPE : type;
+        if (!totals.containsKey(key) && (key.length() > MAX_TYPE_LENGTH || totals.size() >= maxTypesPerGame)) {
+            key = OTHER_TYPE;
+        }
+        long[] total = totals.computeIfAbsent(key, t -> new long[WINDOWS.length]);
+        for (int i = 0; i < total.length && counts != null && i < counts.length; i++) {
+            total[i] += counts[i];
+        }
+    }
+
+    private static final class GameWindow {
+        final Map<String, TypeWindow> types = new ConcurrentHashMap<>();
+        volatile long lastSecond;
+
+        TagRateSnapshot snapshot(long second) {
+            Map<String, long[]> counts = new HashMap<>();
+            types.forEach((type, window) -> counts.put(type, window.sums(second)));
+            return new TagRateSnapshot(WINDOWS, counts);
+        }
+    }
+
+    /**
+     * Ring of one-second counts, one {@code long} per second of the largest window: the second it counts in the high
+     * bits and its count in the low {@link #COUNT_BITS} bits, updated together with a CAS. The first increment of a
+     * new second replaces the slot of the second that was {@link #BUCKETS} seconds ago.
+     */
+    static final class TypeWindow {
+        private static final int COUNT_BITS = 24;
+        private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+        private final AtomicLongArray slots = new AtomicLongArray(BUCKETS);
+
+        void increment(long second) {
+            int index = (int) (second % BUCKETS);
+            while (true) {
+                long slot = slots.get(index);
+                long next;
+                if (slot >>> COUNT_BITS == second) {
+                    if ((slot & COUNT_MASK) == COUNT_MASK) {
+                        return; // Saturated for this second
+                    }
+                    next = slot + 1;
+                } else {
+                    next = (second << COUNT_BITS) | 1;
+                }
+                if (slots.compareAndSet(index, slot, next)) {
+                    return;
+                }
+            }
+        }
+
+        long[] sums(long second) {
+            long[] sums = new long[WINDOWS.length];
+            for (int age = 0; age < BUCKETS; age++) {
+                long bucketSecond = second - age;
+                long slot = slots.get((int) (bucketSecond % BUCKETS));
+                if (slot >>> COUNT_BITS != bucketSecond) {
+                    continue;
+                }
+                long count = slot & COUNT_MASK;
+                for (int w = 0; w < WINDOWS.length; w++) {
+                    if (age < WINDOWS[w]) {
+                        sums[w] += count;
+                    }
+                }
+            }
+            return sums;
+        }
+    }
+
+    private record RemoteSnapshot(TagRateSnapshot snapshot, long receivedAt) {
+    }
+}
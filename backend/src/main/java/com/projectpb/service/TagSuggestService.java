@@ -0,0 +1,265 @@
+package com.projectpb.service;
+
+import com.projectpb.model.TagSuggestion;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Tag autocomplete: an in-memory sorted map of every tag of a user (vods, workouts and training sessions) with its
+ * usage count. It is loaded on the user's first suggestion and kept up to date by the controllers on every write.
+ * Users are evicted least recently used first once the index exceeds its memory budget, and reloaded after
+ * {@code ttlSeconds} so writes handled by other instances show up eventually. Each user has its own lock and
+ * write counter, so a write only ever discards a concurrent load of the same user.
+ */
+@Service
+public class TagSuggestService {
+
+    private static final List<String> COLLECTIONS = List.of("vods", "workouts", "training_sessions", "training_sessions_archive");
+
+    // Rough footprint of a tag in the map besides its characters: tree node, entry and string headers
+    private static final int TAG_OVERHEAD_BYTES = 120;
+
+    private final MongoTemplate mongoTemplate;
+    private final long maxBytes;
+    private final long ttlNanos;
+
+    private final Map<String, UserEntry> users = new ConcurrentHashMap<>();
+    private final AtomicLong currentBytes = new AtomicLong();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    private final Counter evictions;
+
+    public TagSuggestService(MongoTemplate mongoTemplate,
+                             MeterRegistry meterRegistry,
+                             @Value("${projectpb.tagSuggest.maxBytes:16777216}") long maxBytes,
+                             @Value("${projectpb.tagSuggest.ttlSeconds:600}") long ttlSeconds) {
+        this.mongoTemplate = mongoTemplate;
+        this.maxBytes = maxBytes;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+
+        this.evictions = Counter.builder("projectpb.tagsuggest.evictions").register(meterRegistry);
+        Gauge.builder("projectpb.tagsuggest.size", this, TagSuggestService::sizeInBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("projectpb.tagsuggest.users", this, TagSuggestService::userCount)
+                .register(meterRegistry);
+    }
+
+    /**
+     * The {@code limit} most used tags of the user starting with {@code prefix} (case-insensitive).
+     */
+    public List<TagSuggestion> suggest(String userId, String prefix, int limit) {
+        String key = normalize(prefix);
+        UserEntry entry = users.computeIfAbsent(userId, id -> new UserEntry());
+        entry.lastAccess = System.nanoTime();
+        long writesBefore;
+        synchronized (entry) {
+            if (entry.tags != null && !entry.tags.isExpired(ttlNanos)) {
+                return entry.tags.top(key, limit);
+            }
+            writesBefore = entry.writes;
+        }
+
+        UserTags loaded = load(userId);
+        List<TagSuggestion> suggestions = loaded.top(key, limit);
+        synchronized (entry) {
+            // A write of this user during the load may be missing from it: not kept, the next suggestion loads again
+            if (entry.writes == writesBefore && !entry.evicted) {
+                currentBytes.addAndGet(loaded.bytes() - (entry.tags != null ? entry.tags.bytes() : 0));
+                entry.tags = loaded;
+            }
+        }
+        evictIfNeeded();
+        return suggestions;
+    }
+
+    /**
+     * Record a write to a tagged document: {@code before} are its tags before the write (null on create),
+     * {@code after} its tags after it (null on delete).
+     */
+    public void update(String userId, Collection<String> before, Collection<String> after) {
+        UserEntry entry = users.get(userId);
+        if (entry == null) {
+            return; // Loaded from Mongo, with this write, on the next suggestion
+        }
+        synchronized (entry) {
+            entry.writes++;
+            UserTags tags = entry.tags;
+            if (tags == null) {
+                return;
+            }
+            long bytesBefore = tags.bytes();
+            if (before != null) {
+                before.forEach(tags::remove);
+            }
+            if (after != null) {
+                after.forEach(tags::add);
+            }
+            currentBytes.addAndGet(tags.bytes() - bytesBefore);
+        }
+    }
+
+    public long sizeInBytes() {
+        return currentBytes.get();
+    }
+
+    public int userCount() {
+        return (int) users.values().stream().filter(entry -> entry.tags != null).count();
+    }
+
+    private UserTags load(String userId) {
+        UserTags tags = new UserTags(System.nanoTime());
+        for (String collection : COLLECTIONS) {
+            Query query = new Query(where("userId").is(userId));
+            query.fields().include("tags").exclude("_id");
+            for (Document document : mongoTemplate.find(query, Document.class, collection)) {
+                List<String> documentTags = document.getList("tags", String.class);
+                if (documentTags != null) {
+                    documentTags.forEach(tags::add);
+                }
+            }
+        }
+        return tags;
+    }
+
+    // Least recently used users first, by one thread at a time and only once the budget is exceeded
+    private void evictIfNeeded() {
+        if (currentBytes.get() <= maxBytes || !evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            List<Eviction> candidates = new ArrayList<>(users.size());
+            users.forEach((userId, entry) -> candidates.add(new Eviction(userId, entry, entry.lastAccess)));
+            candidates.sort(Comparator.comparingLong(Eviction::lastAccess));
+            for (Iterator<Eviction> eldest = candidates.iterator(); currentBytes.get() > maxBytes && eldest.hasNext(); ) {
+                Eviction candidate = eldest.next();
+                synchronized (candidate.entry()) {
+                    if (users.remove(candidate.userId(), candidate.entry())) {
+                        candidate.entry().evicted = true;
+                        if (candidate.entry().tags != null) {
+                            currentBytes.addAndGet(-candidate.entry().tags.bytes());
+                            candidate.entry().tags = null;
+                            evictions.increment();
+                        }
+                    }
+                }
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private static String normalize(String tag) {
+        return tag == null ? "" : tag.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Guarded by its own monitor: users never wait on each other
+    private static class UserEntry {
+        private volatile UserTags tags;
+        private volatile long lastAccess;
+        // Bumped by every write of the user, so a load that raced with one is not kept
+        private long writes;
+        private boolean evicted;
+    }
+
+    private record Eviction(String userId, UserEntry entry, long lastAccess) {
+    }
+
+    private static class UserTags {
+        // Normalized tag -> how it was last written and how many documents carry it
+        private final TreeMap<String, TagCount> tags = new TreeMap<>();
+        private final long loadedAt;
+        private long bytes;
+
+        UserTags(long loadedAt) {
+            this.loadedAt = loadedAt;
+        }
+
+        boolean isExpired(long ttlNanos) {
+            return System.nanoTime() - loadedAt > ttlNanos;
+        }
+
+        long bytes() {
+            return bytes;
+        }
+
+        void add(String tag) {
+            String key = normalize(tag);
+            if (key.isEmpty()) {
+                return;
+            }
+            TagCount count = tags.get(key);
+            if (count == null) {
+                tags.put(key, new TagCount(tag.trim()));
+                bytes += TAG_OVERHEAD_BYTES + 2L * (key.length() + tag.length());
+            } else {
+                count.label = tag.trim();
+                count.count++;
+            }
+        }
+
+        void remove(String tag) {
+            String key = normalize(tag);
+            TagCount count = tags.get(key);
+            if (count != null && --count.count <= 0) {
+                tags.remove(key);
+                bytes -= TAG_OVERHEAD_BYTES + 2L * (key.length() + count.label.length());
+            }
+        }
+
+        List<TagSuggestion> top(String prefix, int limit) {
+            Map<String, TagCount> matching = prefix.isEmpty()
+                    ? tags
+                    : tags.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+
+            // Min-heap of the best `limit` tags so far, ties broken alphabetically
+            Comparator<TagCount> order = Comparator.<TagCount>comparingInt(c -> c.count)
+                    .thenComparing(c -> c.label, Comparator.reverseOrder());
+            PriorityQueue<TagCount> best = new PriorityQueue<>(limit + 1, order);
+            for (TagCount count : matching.values()) {
+                best.add(count);
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+
+            List<TagSuggestion> suggestions = new ArrayList<>(best.size());
+            while (!best.isEmpty()) {
+                TagCount count = best.poll();
+                suggestions.add(new TagSuggestion(count.label, count.count));
+            }
+            return suggestions.reversed();
+        }
+    }
+
+    private static class TagCount {
+        private String label;
+        private int count = 1;
+
+        TagCount(String label) {
+            this.label = label;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.projectpb.service;
+
+import com.projectpb.model.RankedSession;
+import com.projectpb.model.TrainingSession;
+import com.projectpb.model.Vod;
+import com.projectpb.model.Workout;
+import com.projectpb.repository.RankedSessionRepository;
+import com.projectpb.repository.TrainingSessionRepository;
+import com.projectpb.repository.VodRepository;
+import com.projectpb.repository.WorkoutRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Loaders of the per-user list endpoints. The bootstrap caches its parts under the same keys as these endpoints,
+ * so both go through the same loader and can never cache different bodies for one key.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserListService {
+
+    private final WorkoutRepository workoutRepository;
+    private final TrainingSessionRepository trainingSessionRepository;
+    private final RankedSessionRepository rankedSessionRepository;
+    private final RankedGameStore rankedGameStore;
+    private final VodRepository vodRepository;
+
+    public List<Workout> workouts(String userId) {
+        return workoutRepository.findByUserId(userId);
+    }
+
+    // Recent sessions only: the archived ones are paged through /api/v1/history
+    public List<TrainingSession> trainingSessions(String userId) {
+        return trainingSessionRepository.findByUserId(userId);
+    }
+
+    public List<RankedSession> rankedSessions(String userId) {
+        return rankedGameStore.withGames(userId, rankedSessionRepository.findByUserId(userId));
+    }
+
+    public List<Vod> vods(String userId) {
+        return vodRepository.findByUserId(userId);
+    }
+}
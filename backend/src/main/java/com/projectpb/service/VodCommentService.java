@@ -0,0 +1,173 @@
+package com.projectpb.service;
+
+import com.projectpb.controller.VodController;
+import com.projectpb.model.Vod;
+import com.projectpb.model.VodComment;
+import com.projectpb.repository.VodCommentRepository;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mapping.PropertyHandler;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * VOD comments live in their own collection, indexed by (vodId, timestampSeconds), so the player can load
+ * only the comments of the window being watched and the vod document stays the same size however much it is annotated.
+ * The vod only keeps a {@code commentCount}.
+ */
+@Service
+@RequiredArgsConstructor
+public class VodCommentService {
+
+    private static final String COMMENT_COUNT = "commentCount";
+
+    private final VodCommentRepository repository;
+    private final MongoTemplate mongoTemplate;
+    private final ResponseCacheService responseCache;
+
+    /**
+     * Comments positioned between {@code from} and {@code to} seconds (inclusive), in timeline order.
+     */
+    public List<VodComment> timeline(String vodId, int from, int to, int page, int size) {
+        return repository.findTimeline(vodId, from, to, PageRequest.of(page, size));
+    }
+
+    public VodComment append(Vod vod, VodComment comment) {
+        prepare(vod, comment);
+        VodComment saved = repository.insert(comment);
+        incrementCount(vod, 1);
+        return saved;
+    }
+
+    public boolean delete(Vod vod, String commentId) {
+        long deleted = mongoTemplate.remove(query(where("_id").is(commentId).and("vodId").is(vod.getId())), VodComment.class)
+                .getDeletedCount();
+        if (deleted == 0) {
+            return false;
+        }
+        incrementCount(vod, -1);
+        return true;
+    }
+
+    public void deleteAll(String vodId) {
+        repository.deleteByVodId(vodId);
+    }
+
+    public long count(String vodId) {
+        return repository.countByVodId(vodId);
+    }
+
+    /**
+     * Writes a vod sent by a client (create or full update) without touching its {@code commentCount}, which only
+     * moves by {@code $inc}: a full save would overwrite the count of comments posted meanwhile.
+     * Returns the vod as stored.
+     */
+    public Vod save(Vod vod) {
+        List<VodComment> comments = vod.getComments();
+        vod.setComments(null);
+        int appended = appendMissing(vod, comments);
+
+        Document document = new Document();
+        mongoTemplate.getConverter().write(vod, document);
+        document.remove("_id");
+        document.remove(COMMENT_COUNT);
+        Update update = new Update();
+        document.forEach(update::set);
+        // Fields missing from the request are removed, as the full save did
+        mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(Vod.class)
+                .doWithProperties((PropertyHandler<MongoPersistentProperty>) property -> {
+                    String field = property.getFieldName();
+                    if (!property.isIdProperty() && !COMMENT_COUNT.equals(field) && !document.containsKey(field)) {
+                        update.unset(field);
+                    }
+                });
+        update.inc(COMMENT_COUNT, appended);
+        return mongoTemplate.findAndModify(query(where("_id").is(vod.getId())), update,
+                FindAndModifyOptions.options().upsert(true).returnNew(true), Vod.class);
+    }
+
+    /**
+     * Full-document updates from older clients still carry the whole comment list:
+     * only the comments the timeline doesn't know yet are appended. The known ids are looked up with a single query.
+     * Returns the number of comments appended.
+     */
+    private int appendMissing(Vod vod, List<VodComment> comments) {
+        if (comments == null || comments.isEmpty()) {
+            return 0;
+        }
+        Set<String> ids = new HashSet<>();
+        for (VodComment comment : comments) {
+            if (comment.getId() != null) {
+                ids.add(comment.getId());
+            }
+        }
+        Set<String> known = new HashSet<>();
+        if (!ids.isEmpty()) {
+            Query existing = query(where("_id").in(ids));
+            existing.fields().include("_id");
+            mongoTemplate.find(existing, VodComment.class).forEach(comment -> known.add(comment.getId()));
+        }
+        List<VodComment> missing = new ArrayList<>();
+        for (VodComment comment : comments) {
+            if (comment.getId() == null || known.add(comment.getId())) {
+                prepare(vod, comment);
+                missing.add(comment);
+            }
+        }
+        if (!missing.isEmpty()) {
+            repository.insert(missing);
+        }
+        return missing.size();
+    }
+
+    /**
+     * Move comments still embedded in a vod document to the timeline collection (see VodCommentMigration).
+     * Safe to run twice: comments keep their ids, so a second run overwrites rather than duplicates.
+     */
+    public void migrateEmbedded(Vod vod) {
+        if (vod.getComments() == null) {
+            return;
+        }
+        for (VodComment comment : vod.getComments()) {
+            prepare(vod, comment);
+        }
+        repository.saveAll(vod.getComments());
+
+        long count = repository.countByVodId(vod.getId());
+        mongoTemplate.updateFirst(query(where("_id").is(vod.getId())),
+                new Update().unset("comments").set(COMMENT_COUNT, count), Vod.class);
+        vod.setComments(null);
+        vod.setCommentCount((int) count);
+        responseCache.invalidate(VodController.CACHE_NAME, vod.getUserId());
+    }
+
+    private void prepare(Vod vod, VodComment comment) {
+        if (comment.getId() == null) {
+            comment.setId(UUID.randomUUID().toString());
+        }
+        if (comment.getCreatedAt() == null) {
+            comment.setCreatedAt(System.currentTimeMillis());
+        }
+        comment.setVodId(vod.getId());
+        comment.setUserId(vod.getUserId());
+    }
+
+    private void incrementCount(Vod vod, int delta) {
+        mongoTemplate.updateFirst(query(where("_id").is(vod.getId())), new Update().inc(COMMENT_COUNT, delta), Vod.class);
+        responseCache.invalidate(VodController.CACHE_NAME, vod.getUserId());
+    }
+}
@@ -0,0 +1,36 @@
+package com.projectpb.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+/**
+ * Tells the synthetic warm-up traffic apart from the real one, so it stays out of the request and slow query metrics.
+ * Warm-up requests carry {@link #HEADER} with a value drawn at startup, which clients cannot guess; the Mongo
+ * commands of the warm-up are recognized by time, as the instance is not ready and receives no real traffic meanwhile.
+ */
+@Service
+public class WarmupTraffic {
+
+    public static final String HEADER = "X-Warmup";
+
+    private final String token = UUID.randomUUID().toString();
+    private volatile boolean active;
+
+    public String token() {
+        return token;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+
+    public boolean isWarmup(HttpServletRequest request) {
+        return token.equals(request.getHeader(HEADER));
+    }
+}
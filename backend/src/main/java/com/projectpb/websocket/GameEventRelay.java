@@ -0,0 +1,109 @@
+package com.projectpb.websocket;
+
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.projectpb.service.RealtimeService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Relays events published by other instances on the Redis {@code game:*} and {@code user:*} channels
+ * to the WebSocket clients connected to this instance.
+ * Messages are only queued on the Redis subscription thread and forwarded in batches by a scheduled flush.
+ * The queue is bounded: when the flush falls behind, new events are dropped (and counted) rather than piling up.
+ */
+@Component
+public class GameEventRelay implements MessageListener {
+    private static final Logger logger = LoggerFactory.getLogger(GameEventRelay.class);
+
+    private final TopicBroadcaster broadcaster;
+    private final RealtimeService realtimeService;
+    private final RealtimeCodec codec;
+
+    private final BlockingQueue<RelayedEvent> pending;
+    private final int batchSize;
+    private final Counter dropped;
+
+    public GameEventRelay(TopicBroadcaster broadcaster,
+                          RealtimeService realtimeService,
+                          RealtimeCodec codec,
+                          MeterRegistry meterRegistry,
+                          @Value("${projectpb.realtime.relayQueueCapacity:10000}") int queueCapacity,
+                          @Value("${projectpb.realtime.relayBatchSize:512}") int batchSize) {
+        this.broadcaster = broadcaster;
+        this.realtimeService = realtimeService;
+        this.codec = codec;
+        this.pending = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.dropped = Counter.builder("projectpb.realtime.relay.dropped").register(meterRegistry);
+        Gauge.builder("projectpb.realtime.relay.queue", pending, BlockingQueue::size).register(meterRegistry);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String channel = new String(message.getChannel(), StandardCharsets.UTF_8);
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+
+        RealtimeEnvelope envelope;
+        try {
+            envelope = codec.decode(body);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Ignoring realtime message on {}: {}", channel, e.getMessage());
+            return;
+        }
+        if (realtimeService.getNodeId().equals(envelope.origin())) {
+            return; // Already delivered locally by the instance that received it
+        }
+
+        if (channel.startsWith(RealtimeService.USER_CHANNEL_PREFIX)) {
+            // user:{queue}:{username}
+            String target = channel.substring(RealtimeService.USER_CHANNEL_PREFIX.length());
+            int separator = target.indexOf(':');
+            if (separator > 0) {
+                enqueue(new RelayedEvent(target.substring(separator + 1), "/queue/" + target.substring(0, separator), body));
+            }
+        } else {
+            enqueue(new RelayedEvent(null, "/topic/game/" + envelope.gameId(), body));
+        }
+    }
+
+    private void enqueue(RelayedEvent event) {
+        if (!pending.offer(event)) {
+            dropped.increment();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${projectpb.realtime.relayFlushMs:20}")
+    public void flush() {
+        RelayedEvent event;
+        int sent = 0;
+        while (sent < batchSize && (event = pending.poll()) != null) {
+            send(event);
+            sent++;
+        }
+    }
+
+    private void send(RelayedEvent event) {
+        // The envelope is already encoded: embed it as-is rather than encoding it again
+        RawValue payload = new RawValue(event.payload());
+        if (event.username() != null) {
+            broadcaster.sendToUser(event.username(), event.destination(), payload);
+        } else {
+            broadcaster.broadcast(event.destination(), payload);
+        }
+    }
+
+    private record RelayedEvent(String username, String destination, String payload) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.projectpb.websocket;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Map;
+
+/**
+ * Change of a ranked session pushed to its owner on {@code /user/queue/ranked}.
+ * {@code changes} only holds the fields that changed (or the appended game for GAME_ADDED).
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record RankedSessionDelta(String op, String sessionId, Map<String, Object> changes) {
+}
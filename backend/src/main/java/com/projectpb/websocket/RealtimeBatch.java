@@ -0,0 +1,17 @@
+package com.projectpb.websocket;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Frame carrying several events of the same topic at once: {@code {"v":1,"b":[...]}}.
+ */
+public record RealtimeBatch(
+        @JsonProperty("v") int version,
+        @JsonProperty("b") List<Object> events) {
+
+    public static RealtimeBatch of(List<Object> events) {
+        return new RealtimeBatch(RealtimeEnvelope.CURRENT_VERSION, events);
+    }
+}
@@ -0,0 +1,37 @@
+package com.projectpb.websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class RealtimeCodec {
+
+    private final ObjectMapper objectMapper;
+
+    public String encode(RealtimeEnvelope envelope) {
+        try {
+            return objectMapper.writeValueAsString(envelope);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Could not encode realtime event", e);
+        }
+    }
+
+    /**
+     * Decodes an envelope, rejecting versions this node doesn't understand.
+     */
+    public RealtimeEnvelope decode(String message) {
+        RealtimeEnvelope envelope;
+        try {
+            envelope = objectMapper.readValue(message, RealtimeEnvelope.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed realtime event", e);
+        }
+        if (envelope.version() != RealtimeEnvelope.CURRENT_VERSION) {
+            throw new IllegalArgumentException("Unsupported realtime event version " + envelope.version());
+        }
+        return envelope;
+    }
+}
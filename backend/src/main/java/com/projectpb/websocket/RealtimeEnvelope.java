@@ -0,0 +1,22 @@
+package com.projectpb.websocket;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Versioned envelope for every realtime event, shared by the Redis game channels and the STOMP topics.
+ * Keys are single letters to keep frames small; {@code sequence} is monotonic per origin node.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record RealtimeEnvelope(
+        @JsonProperty("v") int version,
+        @JsonProperty("t") String type,
+        @JsonProperty("g") String gameId,
+        @JsonProperty("u") String userId,
+        @JsonProperty("ts") long timestamp,
+        @JsonProperty("s") long sequence,
+        @JsonProperty("o") String origin,
+        @JsonProperty("d") Object data) {
+
+    public static final int CURRENT_VERSION = 1;
+}
@@ -1,37 +1,50 @@
 package com.projectpb.websocket;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.projectpb.security.services.UserDetailsImpl;
 import com.projectpb.service.RealtimeService;
+import com.projectpb.service.TagEventWriter;
+import com.projectpb.service.TagRateAggregator;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
-import org.springframework.messaging.handler.annotation.SendTo;
+import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 
+import java.security.Principal;
+
 @Controller
 @RequiredArgsConstructor
 public class StompController {
 
     private final RealtimeService realtimeService;
+    private final TopicBroadcaster broadcaster;
+    private final TagEventWriter tagEventWriter;
+    private final TagRateAggregator tagRateAggregator;
 
     // Client sends to: /app/game/{gameId}/tag
     // Server broadcasts to: /topic/game/{gameId}
+    // The tag is attributed to the user authenticated on STOMP CONNECT (see StompAuthInterceptor)
     @MessageMapping("/game/{gameId}/tag")
-    @SendTo("/topic/game/{gameId}")
-    public TagEvent handleTag(@DestinationVariable String gameId, @Payload TagEvent event) {
-        // Here we could persist the tag to MongoDB via GameService if needed
-        realtimeService.publishGameEvent(gameId, "TAG", event.toString());
-        return event; // Echoes back to all subscribers of /topic/game/{gameId}
+    public void handleTag(@DestinationVariable String gameId, @Payload TagEvent event, Principal principal) {
+        String userId = ((UserDetailsImpl) ((Authentication) principal).getPrincipal()).getId();
+        RealtimeEnvelope envelope = realtimeService.createEvent("TAG", gameId, userId, event.getTimestamp(), event.getType());
+        tagEventWriter.append(envelope); // Persisted asynchronously, replay via GET /api/v1/games/{gameId}/tags
+        tagRateAggregator.record(gameId, event.getType()); // Rates published to /topic/game/{gameId}/stats
+        realtimeService.publishGameEvent(envelope); // Other instances relay it to their own subscribers (see GameEventRelay)
+        broadcaster.broadcast("/topic/game/" + gameId, envelope); // Echoes back to all subscribers of /topic/game/{gameId}
     }
 
+    // Clients may still send a userId: it is ignored
     @Data
     @AllArgsConstructor // For JSON deserialization
+    @JsonIgnoreProperties(ignoreUnknown = true)
     static class TagEvent {
         private String type;
         private Long timestamp;
-        private String userId;
     }
 }
 
@@ -0,0 +1,36 @@
+package com.projectpb.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Counts the STOMP messages going through a client channel, tagged by direction and message type.
+ */
+public class StompMetricsInterceptor implements ChannelInterceptor {
+
+    private final Map<SimpMessageType, Counter> counters = new EnumMap<>(SimpMessageType.class);
+
+    public StompMetricsInterceptor(MeterRegistry meterRegistry, String direction) {
+        for (SimpMessageType type : SimpMessageType.values()) {
+            counters.put(type, Counter.builder("projectpb.stomp.messages")
+                    .tag("direction", direction)
+                    .tag("type", type.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+        counters.get(type != null ? type : SimpMessageType.OTHER).increment();
+        return message;
+    }
+}
@@ -0,0 +1,14 @@
+package com.projectpb.websocket;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Map;
+
+/**
+ * Tag counts of a game over sliding windows, published on {@code /topic/game/{gameId}/stats}.
+ * {@code counts} maps each tag type to one count per entry of {@code windows} (in seconds).
+ */
+public record TagRateSnapshot(
+        @JsonProperty("w") int[] windows,
+        @JsonProperty("c") Map<String, long[]> counts) {
+}
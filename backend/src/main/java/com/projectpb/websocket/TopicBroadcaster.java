@@ -0,0 +1,71 @@
+package com.projectpb.websocket;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sends payloads to broker topics. With coalescing enabled ({@code projectpb.websocket.coalesceMs > 0})
+ * payloads are buffered per topic and sent as a single {@link RealtimeBatch} frame every interval
+ * instead of one frame per event.
+ */
+@Component
+public class TopicBroadcaster {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final TaskScheduler taskScheduler;
+    private final long coalesceMs;
+
+    // Lists are only touched inside the map's atomic operations until they are removed for flushing
+    private final Map<String, List<Object>> pending = new ConcurrentHashMap<>();
+
+    public TopicBroadcaster(SimpMessagingTemplate messagingTemplate,
+                            @Qualifier("taskScheduler") TaskScheduler taskScheduler,
+                            @Value("${projectpb.websocket.coalesceMs:0}") long coalesceMs) {
+        this.messagingTemplate = messagingTemplate;
+        this.taskScheduler = taskScheduler;
+        this.coalesceMs = coalesceMs;
+    }
+
+    @PostConstruct
+    void scheduleFlush() {
+        if (coalesceMs > 0) {
+            taskScheduler.scheduleWithFixedDelay(this::flush, Duration.ofMillis(coalesceMs));
+        }
+    }
+
+    public void broadcast(String destination, Object payload) {
+        if (coalesceMs <= 0) {
+            messagingTemplate.convertAndSend(destination, payload);
+            return;
+        }
+        pending.compute(destination, (key, events) -> {
+            List<Object> list = events != null ? events : new ArrayList<>();
+            list.add(payload);
+            return list;
+        });
+    }
+
+    // User queues only carry a handful of events per session, so they are never coalesced
+    public void sendToUser(String username, String destination, Object payload) {
+        messagingTemplate.convertAndSendToUser(username, destination, payload);
+    }
+
+    void flush() {
+        for (String destination : pending.keySet()) {
+            List<Object> events = pending.remove(destination);
+            if (events != null && !events.isEmpty()) {
+                messagingTemplate.convertAndSend(destination, RealtimeBatch.of(events));
+            }
+        }
+    }
+}
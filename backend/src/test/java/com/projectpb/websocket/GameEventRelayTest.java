@@ -0,0 +1,128 @@
+package com.projectpb.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.projectpb.service.RealtimeService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.PatternTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Two instances talking through an in-process Redis: node A publishes with its RealtimeService,
+ * node B's relay forwards what it receives to its own subscribers.
+ */
+class GameEventRelayTest {
+
+    private final RealtimeCodec codec = new RealtimeCodec(new ObjectMapper());
+
+    private InProcessRedis redis;
+    private LettuceConnectionFactory connectionFactory;
+    private RedisMessageListenerContainer container;
+    private RealtimeService nodeA;
+    private RealtimeService nodeB;
+    private TopicBroadcaster broadcasterB;
+    private GameEventRelay relayB;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        redis = new InProcessRedis();
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("127.0.0.1", redis.port()));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+
+        nodeA = realtimeService("node-a");
+        ReflectionTestUtils.invokeMethod(nodeA, "start");
+        nodeB = realtimeService("node-b");
+        broadcasterB = mock(TopicBroadcaster.class);
+        relayB = new GameEventRelay(broadcasterB, nodeB, codec, new SimpleMeterRegistry(), 100, 512);
+
+        container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.setTaskExecutor(new SyncTaskExecutor());
+        container.addMessageListener(relayB, List.of(
+                new PatternTopic(RealtimeService.GAME_CHANNEL_PREFIX + "*"),
+                new PatternTopic(RealtimeService.USER_CHANNEL_PREFIX + "*")));
+        container.afterPropertiesSet();
+        container.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        ReflectionTestUtils.invokeMethod(nodeA, "stop");
+        container.destroy();
+        connectionFactory.destroy();
+        redis.close();
+    }
+
+    private RealtimeService realtimeService(String nodeId) {
+        return new RealtimeService(new StringRedisTemplate(connectionFactory), codec, new SimpleMeterRegistry(),
+                nodeId, 100, 16, 5, 5000);
+    }
+
+    @Test
+    void relaysGameEventsFromAnotherInstance() {
+        nodeA.publishGameEvent(nodeA.createEvent("TAG", "game-1", "user-1", null, "KILL"));
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+            relayB.flush();
+            verify(broadcasterB).broadcast(eq("/topic/game/game-1"), any(RawValue.class));
+        });
+    }
+
+    @Test
+    void relaysUserEventsToTheUserQueue() {
+        nodeA.publishUserEvent("sessions", "alice", nodeA.createEvent("RANKED_SESSION", null, "user-1", null, null));
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+            relayB.flush();
+            verify(broadcasterB).sendToUser(eq("alice"), eq("/queue/sessions"), any(RawValue.class));
+        });
+    }
+
+    @Test
+    void skipsItsOwnEvents() {
+        // Node B's own event comes back through Redis; node A's event published after it marks the end of the exchange
+        new StringRedisTemplate(connectionFactory).convertAndSend("game:game-1",
+                codec.encode(nodeB.createEvent("TAG", "game-1", "user-1", null, "KILL")));
+        nodeA.publishGameEvent(nodeA.createEvent("TAG", "game-2", "user-1", null, "KILL"));
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+            relayB.flush();
+            verify(broadcasterB).broadcast(eq("/topic/game/game-2"), any(RawValue.class));
+        });
+        verify(broadcasterB, never()).broadcast(eq("/topic/game/game-1"), any());
+    }
+
+    @Test
+    void dropsEventsBeyondTheQueueCapacity() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        GameEventRelay relay = new GameEventRelay(broadcasterB, nodeB, codec, meterRegistry, 2, 512);
+        byte[] body = codec.encode(nodeA.createEvent("TAG", "game-1", "user-1", null, "KILL")).getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < 5; i++) {
+            relay.onMessage(new DefaultMessage("game:game-1".getBytes(StandardCharsets.UTF_8), body), null);
+        }
+
+        assertThat(meterRegistry.get("projectpb.realtime.relay.dropped").counter().count()).isEqualTo(3);
+        relay.flush();
+        verify(broadcasterB, times(2)).broadcast(eq("/topic/game/game-1"), any(RawValue.class));
+    }
+}
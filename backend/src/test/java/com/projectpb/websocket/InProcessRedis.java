@@ -0,0 +1,224 @@
+package com.projectpb.websocket;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Just enough of a Redis server (RESP2) for pub/sub: PSUBSCRIBE, SUBSCRIBE, PUBLISH and the client handshake.
+ */
+class InProcessRedis implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final Set<Client> clients = ConcurrentHashMap.newKeySet();
+
+    InProcessRedis() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread.ofVirtual().start(this::accept);
+    }
+
+    int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Client client = new Client(serverSocket.accept());
+                clients.add(client);
+                Thread.ofVirtual().start(client::serve);
+            } catch (IOException e) {
+                return; // Closed
+            }
+        }
+    }
+
+    private int publish(String channel, byte[] message) throws IOException {
+        int receivers = 0;
+        for (Client client : clients) {
+            if (client.channels.contains(channel)) {
+                client.write(array(bulk("message"), bulk(channel), bulk(message)));
+                receivers++;
+            }
+            for (Map.Entry<String, Pattern> pattern : client.patterns.entrySet()) {
+                if (pattern.getValue().matcher(channel).matches()) {
+                    client.write(array(bulk("pmessage"), bulk(pattern.getKey()), bulk(channel), bulk(message)));
+                    receivers++;
+                }
+            }
+        }
+        return receivers;
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        for (Client client : clients) {
+            client.socket.close();
+        }
+    }
+
+    private class Client {
+        private final Socket socket;
+        private final InputStream in;
+        private final OutputStream out;
+        private final Set<String> channels = ConcurrentHashMap.newKeySet();
+        private final Map<String, Pattern> patterns = new ConcurrentHashMap<>();
+
+        Client(Socket socket) throws IOException {
+            this.socket = socket;
+            this.in = new BufferedInputStream(socket.getInputStream());
+            this.out = socket.getOutputStream();
+        }
+
+        void serve() {
+            try (socket) {
+                List<byte[]> command;
+                while ((command = readCommand()) != null) {
+                    handle(command);
+                }
+            } catch (IOException e) {
+                // Disconnected
+            } finally {
+                clients.remove(this);
+            }
+        }
+
+        private void handle(List<byte[]> command) throws IOException {
+            String name = new String(command.get(0), StandardCharsets.UTF_8).toUpperCase();
+            List<String> args = new ArrayList<>();
+            for (byte[] arg : command.subList(1, command.size())) {
+                args.add(new String(arg, StandardCharsets.UTF_8));
+            }
+            switch (name) {
+                case "PING" -> write("+PONG\r\n".getBytes(StandardCharsets.US_ASCII));
+                case "CLIENT", "SELECT" -> write("+OK\r\n".getBytes(StandardCharsets.US_ASCII));
+                case "SUBSCRIBE" -> {
+                    for (String channel : args) {
+                        channels.add(channel);
+                        write(array(bulk("subscribe"), bulk(channel), integer(channels.size() + patterns.size())));
+                    }
+                }
+                case "PSUBSCRIBE" -> {
+                    for (String pattern : args) {
+                        patterns.put(pattern, glob(pattern));
+                        write(array(bulk("psubscribe"), bulk(pattern), integer(channels.size() + patterns.size())));
+                    }
+                }
+                case "UNSUBSCRIBE", "PUNSUBSCRIBE" -> {
+                    boolean pattern = name.equals("PUNSUBSCRIBE");
+                    List<String> removed = new ArrayList<>(args.isEmpty() ? (pattern ? patterns.keySet() : channels) : args);
+                    if (removed.isEmpty()) {
+                        write(array(bulk(name.toLowerCase()), "$-1\r\n".getBytes(StandardCharsets.US_ASCII), integer(0)));
+                    }
+                    for (String target : removed) {
+                        if (pattern) {
+                            patterns.remove(target);
+                        } else {
+                            channels.remove(target);
+                        }
+                        write(array(bulk(name.toLowerCase()), bulk(target), integer(channels.size() + patterns.size())));
+                    }
+                }
+                case "PUBLISH" -> write(integer(publish(args.get(0), command.get(2))));
+                case "QUIT" -> {
+                    write("+OK\r\n".getBytes(StandardCharsets.US_ASCII));
+                    socket.close();
+                }
+                // HELLO included: the client falls back to RESP2
+                default -> write(("-ERR unknown command '" + name + "'\r\n").getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        synchronized void write(byte[] reply) throws IOException {
+            out.write(reply);
+            out.flush();
+        }
+
+        // Clients send every command as an array of bulk strings
+        private List<byte[]> readCommand() throws IOException {
+            String header = readLine();
+            if (header == null) {
+                return null;
+            }
+            int count = Integer.parseInt(header.substring(1));
+            List<byte[]> command = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int length = Integer.parseInt(readLine().substring(1));
+                command.add(in.readNBytes(length));
+                readLine();
+            }
+            return command;
+        }
+
+        private String readLine() throws IOException {
+            StringBuilder line = new StringBuilder();
+            int b;
+            while ((b = in.read()) != -1) {
+                if (b == '\r') {
+                    in.read(); // \n
+                    return line.toString();
+                }
+                line.append((char) b);
+            }
+            return null;
+        }
+    }
+
+    private static Pattern glob(String pattern) {
+        StringBuilder regex = new StringBuilder();
+        for (char c : pattern.toCharArray()) {
+            switch (c) {
+                case '*' -> regex.append(".*");
+                case '?' -> regex.append('.');
+                default -> regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    private static byte[] bulk(String value) {
+        return bulk(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static byte[] bulk(byte[] value) {
+        byte[] header = ("$" + value.length + "\r\n").getBytes(StandardCharsets.US_ASCII);
+        byte[] bulk = new byte[header.length + value.length + 2];
+        System.arraycopy(header, 0, bulk, 0, header.length);
+        System.arraycopy(value, 0, bulk, header.length, value.length);
+        bulk[bulk.length - 2] = '\r';
+        bulk[bulk.length - 1] = '\n';
+        return bulk;
+    }
+
+    private static byte[] integer(long value) {
+        return (":" + value + "\r\n").getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[] array(byte[]... elements) {
+        byte[] header = ("*" + elements.length + "\r\n").getBytes(StandardCharsets.US_ASCII);
+        int length = header.length;
+        for (byte[] element : elements) {
+            length += element.length;
+        }
+        byte[] array = new byte[length];
+        System.arraycopy(header, 0, array, 0, header.length);
+        int offset = header.length;
+        for (byte[] element : elements) {
+            System.arraycopy(element, 0, array, offset, element.length);
+            offset += element.length;
+        }
+        return array;
+    }
+}
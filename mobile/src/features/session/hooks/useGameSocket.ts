@@ -49,7 +49,6 @@ export const useGameSocket = (gameId: string) => {
                 body: JSON.stringify({
                     type,
                     timestamp: Date.now(),
-                    userId: 'me', // Ideally get from Auth Context
                 }),
             });
         }
@@ -8,11 +8,17 @@ import Link from 'next/link';
 import { motion, AnimatePresence } from 'framer-motion';
 import { dashboardApi, RankedSession } from '@/features/dashboard/api';
 
+// Archived sessions are loaded a page at a time after the recent ones
+const ARCHIVE_PAGE_SIZE = 20;
+
 export default function RankedSessionsPage() {
   const { selectedGame, selectedGameId } = useGame();
   const [sessions, setSessions] = useState<RankedSession[]>([]);
   const [filterStatus, setFilterStatus] = useState<'ALL' | 'ACTIVE' | 'COMPLETED'>('ALL');
   const [loading, setLoading] = useState(true);
+  const [archivePage, setArchivePage] = useState(0);
+  const [hasMoreArchived, setHasMoreArchived] = useState(false);
+  const [loadingArchived, setLoadingArchived] = useState(false);
   
   // Modal State
   const [isModalOpen, setIsModalOpen] = useState(false);
@@ -38,12 +44,17 @@ export default function RankedSessionsPage() {
   const fetchSessions = async () => {
     try {
       setLoading(true);
-      const data = await dashboardApi.getRankedSessions();
-      // Filter by current game and sort by date descending (assuming new ones first)
+      const [data, archived] = await Promise.all([
+        dashboardApi.getRankedSessions(),
+        dashboardApi.getArchivedRankedSessions(selectedGameId, 0, ARCHIVE_PAGE_SIZE)
+      ]);
+      // Filter by current game and sort by date descending (assuming new ones first); archived sessions are older
       const filtered = data
         .filter(s => s.gameId === selectedGameId)
         .sort((a, b) => new Date(b.date).getTime() - new Date(a.date).getTime());
-      setSessions(filtered);
+      setSessions([...filtered, ...archived]);
+      setArchivePage(1);
+      setHasMoreArchived(archived.length === ARCHIVE_PAGE_SIZE);
     } catch (error) {
       console.error("Failed to fetch ranked sessions", error);
     } finally {
@@ -51,6 +62,20 @@ export default function RankedSessionsPage() {
     }
   };
 
+  const loadOlderSessions = async () => {
+    try {
+      setLoadingArchived(true);
+      const archived = await dashboardApi.getArchivedRankedSessions(selectedGameId, archivePage, ARCHIVE_PAGE_SIZE);
+      setSessions(prev => [...prev, ...archived.filter(a => !prev.some(s => s.id === a.id))]);
+      setArchivePage(archivePage + 1);
+      setHasMoreArchived(archived.length === ARCHIVE_PAGE_SIZE);
+    } catch (error) {
+      console.error("Failed to fetch archived ranked sessions", error);
+    } finally {
+      setLoadingArchived(false);
+    }
+  };
+
   useEffect(() => {
     const handleClickOutside = (event: MouseEvent) => {
       if (rankSelectorRef.current && !rankSelectorRef.current.contains(event.target as Node)) {
@@ -216,6 +241,14 @@ export default function RankedSessionsPage() {
       </div>
       )}
 
+      {!loading && hasMoreArchived && (
+        <div className="flex justify-center">
+          <Button onClick={loadOlderSessions} disabled={loadingArchived} className="bg-slate-900 border-slate-800 font-black italic text-xs px-8">
+            {loadingArchived ? 'Chargement...' : 'SESSIONS PLUS ANCIENNES'}
+          </Button>
+        </div>
+      )}
+
       <AnimatePresence>
         {isModalOpen && (
           <div className="fixed inset-0 z-50 flex items-center justify-center p-4">
@@ -9,6 +9,9 @@ import { motion, AnimatePresence } from 'framer-motion';
 import { AreaChart, Area, XAxis, YAxis, CartesianGrid, Tooltip, ResponsiveContainer } from 'recharts';
 import { dashboardApi, Workout, TrainingSession } from '@/features/dashboard/api';
 
+// Archived sessions of the workout are loaded a page at a time after the recent ones
+const ARCHIVE_PAGE_SIZE = 20;
+
 export default function TrainingDetailPage() {
   const { id } = useParams();
   const router = useRouter();
@@ -16,6 +19,8 @@ export default function TrainingDetailPage() {
   
   const [workout, setWorkout] = useState<Workout | null>(null);
   const [history, setHistory] = useState<TrainingSession[]>([]);
+  const [archivePage, setArchivePage] = useState(0);
+  const [hasMoreArchived, setHasMoreArchived] = useState(false);
   const [status, setStatus] = useState<'IDLE' | 'ACTIVE' | 'SUMMARY'>('IDLE');
   const [currentExIndex, setCurrentExIndex] = useState(0);
   const [timer, setTimer] = useState(0);
@@ -29,14 +34,30 @@ export default function TrainingDetailPage() {
             .then(data => {
                 setWorkout(data);
                 // Fetch history for this workout
-                dashboardApi.getTrainingSessions().then(sessions => {
-                    setHistory(sessions.filter(s => s.workoutId === id).sort((a,b) => new Date(b.date).getTime() - new Date(a.date).getTime()));
+                Promise.all([
+                    dashboardApi.getTrainingSessions(),
+                    dashboardApi.getArchivedTrainingSessions({ workoutId: id as string }, 0, ARCHIVE_PAGE_SIZE)
+                ]).then(([sessions, archived]) => {
+                    const recent = sessions.filter(s => s.workoutId === id).sort((a,b) => new Date(b.date).getTime() - new Date(a.date).getTime());
+                    setHistory([...recent, ...archived]);
+                    setArchivePage(1);
+                    setHasMoreArchived(archived.length === ARCHIVE_PAGE_SIZE);
                 });
             })
             .catch(err => console.error("Failed to fetch workout", err));
     }
   }, [id]);
 
+  const loadOlderSessions = () => {
+    dashboardApi.getArchivedTrainingSessions({ workoutId: id as string }, archivePage, ARCHIVE_PAGE_SIZE)
+      .then(archived => {
+        setHistory(prev => [...prev, ...archived.filter(a => !prev.some(s => s.id === a.id))]);
+        setArchivePage(archivePage + 1);
+        setHasMoreArchived(archived.length === ARCHIVE_PAGE_SIZE);
+      })
+      .catch(err => console.error("Failed to fetch archived sessions", err));
+  };
+
   useEffect(() => {
     let interval: NodeJS.Timeout;
     if (status === 'ACTIVE') {
@@ -286,6 +307,11 @@ export default function TrainingDetailPage() {
                   <p className="text-[10px] font-black text-slate-600 uppercase tracking-widest">Aucune session</p>
                 </div>
               )}
+              {hasMoreArchived && (
+                <button onClick={loadOlderSessions} className="w-full py-2 text-[9px] font-black text-slate-500 hover:text-slate-300 uppercase tracking-widest">
+                  Sessions plus anciennes
+                </button>
+              )}
             </div>
           </div>
         </div>
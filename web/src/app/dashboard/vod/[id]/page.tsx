@@ -1,12 +1,16 @@
 'use client';
 
-import React, { useState, useEffect, useRef } from 'react';
+import React, { useState, useEffect, useRef, useCallback } from 'react';
 import { useParams, useRouter } from 'next/navigation';
 import { useGame } from '@/features/game/context';
 import { Card, Button, Input } from '@/shared/components/ui';
 import { ChevronLeft, MessageSquare, Plus, Trash2, Send, Clock, Tag, ExternalLink, Video, MonitorOff } from 'lucide-react';
 import { motion } from 'framer-motion';
-import { dashboardApi, Vod } from '@/features/dashboard/api';
+import { dashboardApi, Vod, VodComment } from '@/features/dashboard/api';
+
+// Comments are loaded by window of the video as it plays, the server pages each window
+const WINDOW_SECONDS = 600;
+const PAGE_SIZE = 500;
 
 export default function VodDetailPage() {
   const { id } = useParams();
@@ -15,17 +19,48 @@ export default function VodDetailPage() {
   const iframeRef = useRef<HTMLIFrameElement>(null);
   
   const [vod, setVod] = useState<Vod | null>(null);
+  const [comments, setComments] = useState<VodComment[]>([]);
   const [newComment, setNewComment] = useState('');
   const [newTime, setNewTime] = useState('');
   const [videoCurrentTime, setVideoCurrentTime] = useState(0);
+  const [commentCount, setCommentCount] = useState(0);
+  const [loadedUntil, setLoadedUntil] = useState(0);
+  const loading = useRef(false);
+
+  const mergeComments = (loaded: VodComment[]) => {
+    setComments(prev => {
+      const byId = new Map(prev.map(c => [c.id, c]));
+      loaded.forEach(c => byId.set(c.id, c));
+      return Array.from(byId.values()).sort((a, b) => a.timestampSeconds - b.timestampSeconds);
+    });
+  };
+
+  // Loads every comment before `until` (seconds) not loaded yet, page by page
+  const loadUntil = useCallback(async (until: number) => {
+    if (!id || loading.current || until <= loadedUntil) return;
+    loading.current = true;
+    try {
+      for (let page = 0; ; page++) {
+        const loaded = await dashboardApi.getVodComments(id as string, loadedUntil, until - 1, page, PAGE_SIZE);
+        mergeComments(loaded);
+        if (loaded.length < PAGE_SIZE) break;
+      }
+      setLoadedUntil(until);
+    } catch (err) {
+      console.error("Failed to fetch VOD comments", err);
+    } finally {
+      loading.current = false;
+    }
+  }, [id, loadedUntil]);
 
   useEffect(() => {
     if (id) {
+        setComments([]);
+        setLoadedUntil(0);
         dashboardApi.getVodById(id as string)
-            .then(data => {
-                // Ensure comments is an array
-                if (!data.comments) data.comments = [];
-                setVod(data);
+            .then(v => {
+                setVod(v);
+                setCommentCount(v.commentCount ?? 0);
             })
             .catch(err => {
                 console.error("Failed to fetch VOD", err);
@@ -33,6 +68,12 @@ export default function VodDetailPage() {
     }
   }, [id]);
 
+  // The current window and the next one, so comments are there before the video reaches them
+  useEffect(() => {
+    const windowStart = Math.floor(videoCurrentTime / WINDOW_SECONDS) * WINDOW_SECONDS;
+    loadUntil(windowStart + 2 * WINDOW_SECONDS);
+  }, [videoCurrentTime, loadUntil]);
+
   const getYoutubeId = (url: string) => {
     if (!url) return null;
     const regExp = /^.*(youtu.be\/|v\/|u\/\w\/|embed\/|watch\?v=|\&v=)([^#\&\?]*).*/;
@@ -108,24 +149,15 @@ export default function VodDetailPage() {
   const addComment = async () => {
     if (!newComment.trim() || !vod) return;
     let seconds = newTime.trim() ? parseTimeToSeconds(newTime) : Math.floor(videoCurrentTime);
-    let timeStr = newTime.trim() ? newTime : formatSecondsToTime(seconds);
 
-    const comment = {
-      id: Date.now().toString(),
-      time: timeStr,
-      seconds: seconds,
-      text: newComment,
-      type: 'GENERAL'
-    };
-    
-    const updatedVod = { ...vod, comments: [...(vod.comments || []), comment].sort((a, b) => a.seconds - b.seconds) };
     try {
-        const saved = await dashboardApi.updateVod(vod.id!, updatedVod);
-        setVod(saved);
+        const saved = await dashboardApi.addVodComment(vod.id!, { timestampSeconds: seconds, text: newComment });
+        mergeComments([saved]);
+        setCommentCount(count => count + 1);
         setNewComment('');
         setNewTime('');
     } catch (error) {
-        console.error("Failed to update VOD with new comment", error);
+        console.error("Failed to add comment to VOD", error);
     }
   };
 
@@ -210,24 +242,29 @@ export default function VodDetailPage() {
               <h3 className="font-black text-[9px] text-slate-400 uppercase tracking-[0.2em] flex items-center gap-2">
                 <MessageSquare size={12} className="text-[var(--primary-color)]" /> Timestamps & Notes
               </h3>
-              <span className="text-[10px] font-black bg-slate-800 px-1.5 py-0.5 rounded text-slate-500">{vod.comments.length}</span>
+              <span className="text-[10px] font-black bg-slate-800 px-1.5 py-0.5 rounded text-slate-500">{commentCount}</span>
             </div>
 
             <div className="flex-1 overflow-y-auto p-3 space-y-3 custom-scrollbar">
-              {vod.comments.map((c: any) => (
+              {comments.map((c) => (
                 <div 
                   key={c.id} 
-                  onClick={() => !vod.isReplay && seekTo(c.seconds)}
+                  onClick={() => !vod.isReplay && seekTo(c.timestampSeconds)}
                   className={`group relative bg-slate-900/80 border border-slate-800 p-2.5 rounded-xl hover:border-[var(--primary-color)]/50 hover:bg-slate-900 transition-all ${vod.isReplay ? '' : 'cursor-pointer'}`}
                 >
                   <div className="flex justify-between items-start mb-1">
-                    <span className="text-[9px] font-black text-[var(--primary-color)] bg-[var(--primary-color)]/10 px-1.5 py-0.5 rounded border border-[var(--primary-color)]/20 font-mono group-hover:bg-[var(--primary-color)] group-hover:text-white transition-colors">{c.time}</span>
-                    <span className="text-[8px] font-black text-slate-600 uppercase tracking-tighter">{c.type}</span>
+                    <span className="text-[9px] font-black text-[var(--primary-color)] bg-[var(--primary-color)]/10 px-1.5 py-0.5 rounded border border-[var(--primary-color)]/20 font-mono group-hover:bg-[var(--primary-color)] group-hover:text-white transition-colors">{formatSecondsToTime(c.timestampSeconds)}</span>
                   </div>
                   <p className="text-slate-200 text-xs leading-relaxed group-hover:text-white transition-colors">{c.text}</p>
                 </div>
               ))}
-              {vod.comments.length === 0 && (
+              {comments.length < commentCount && (
+                <Button variant="ghost" size="sm" onClick={() => loadUntil(loadedUntil + 2 * WINDOW_SECONDS)}
+                  className="w-full text-[9px] font-black uppercase tracking-widest text-slate-500 h-7">
+                  Notes après {formatSecondsToTime(loadedUntil)}
+                </Button>
+              )}
+              {comments.length === 0 && commentCount === 0 && (
                 <div className="h-full flex flex-col items-center justify-center opacity-30 space-y-4 py-12">
                   <Clock size={32} />
                   <p className="text-[10px] font-black uppercase tracking-widest text-center">Aucune note pour le moment</p>
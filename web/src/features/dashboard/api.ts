@@ -54,10 +54,18 @@ export interface Vod {
   tags: string[];
   isReplay: boolean;
   notes?: string;
-  comments?: any[];
+  commentCount?: number;
   createdAt?: string;
 }
 
+export interface VodComment {
+  id?: string;
+  vodId?: string;
+  timestampSeconds: number;
+  text: string;
+  createdAt?: number;
+}
+
 export const dashboardApi = {
   // Workouts (Plans/Routines)
   getWorkouts: async (): Promise<Workout[]> => {
@@ -85,6 +93,11 @@ export const dashboardApi = {
     const response = await api.get<TrainingSession[]>('/training-sessions');
     return response.data;
   },
+  // Sessions moved to the archive (older than projectpb.archive.olderThanDays), newest first, one page at a time
+  getArchivedTrainingSessions: async (filters: { gameId?: string; workoutId?: string }, page = 0, size = 20): Promise<TrainingSession[]> => {
+    const response = await api.get<TrainingSession[]>('/history/training-sessions', { params: { ...filters, page, size } });
+    return response.data;
+  },
   getTrainingSessionById: async (id: string): Promise<TrainingSession> => {
     const response = await api.get<TrainingSession>(`/training-sessions/${id}`);
     return response.data;
@@ -103,6 +116,12 @@ export const dashboardApi = {
     return response.data;
   },
 
+  // Sessions moved to the archive (older than projectpb.archive.olderThanDays), newest first, one page at a time
+  getArchivedRankedSessions: async (gameId: string, page = 0, size = 20): Promise<RankedSession[]> => {
+    const response = await api.get<RankedSession[]>('/history/ranked-sessions', { params: { gameId, page, size } });
+    return response.data;
+  },
+
   getRankedSessionById: async (id: string): Promise<RankedSession> => {
     const response = await api.get<RankedSession>(`/ranked-sessions/${id}`);
     return response.data;
@@ -146,4 +165,19 @@ export const dashboardApi = {
   deleteVod: async (id: string): Promise<void> => {
     await api.delete(`/vods/${id}`);
   },
+
+  // VOD comments, ordered by position in the video
+  getVodComments: async (vodId: string, from = 0, to?: number, page = 0, limit = 500): Promise<VodComment[]> => {
+    const response = await api.get<VodComment[]>(`/vods/${vodId}/comments`, { params: { from, to, page, limit } });
+    return response.data;
+  },
+
+  addVodComment: async (vodId: string, comment: VodComment): Promise<VodComment> => {
+    const response = await api.post<VodComment>(`/vods/${vodId}/comments`, comment);
+    return response.data;
+  },
+
+  deleteVodComment: async (vodId: string, commentId: string): Promise<void> => {
+    await api.delete(`/vods/${vodId}/comments/${commentId}`);
+  },
 };
@@ -9,6 +9,20 @@ import { userApi, UserConfig } from '@/features/user/api';
 // Types simplified from mobile/src/shared/types.ts & mobile/src/features/game/context.tsx
 export type SupportedGame = string;
 
+// Maps and agents are referenced by id (slug of the name, assigned by the backend when missing)
+export interface GameConfigEntry {
+  id?: string;
+  name: string;
+  iconUrl?: string;
+}
+
+export interface GameConfigMetric {
+  id?: string;
+  label: string;
+  unit?: string;
+  type?: string;
+}
+
 export interface GameConfig {
   id: string; // Database UUID
   game: string; // Internal ID (e.g. VALORANT)
@@ -26,9 +40,9 @@ export interface GameConfig {
     logoUrl?: string;
   };
   ranks: { name: string; iconUrl?: string }[];
-  maps: any[];
-  agents: any[];
-  metrics: any[];
+  maps: GameConfigEntry[];
+  agents: GameConfigEntry[];
+  metrics: GameConfigMetric[];
   hidden: boolean;
   features: {
     hasAgent: boolean;